@@ -0,0 +1,54 @@
+package my.project.benchmark;
+
+import my.project.Product;
+import my.project.PromotionalRule;
+import my.project.summary.BasketSummary;
+import my.project.summary.BasketSummaryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BasketSummaryFactoryBenchmark {
+
+    @Param({"1", "100", "10000", "100000"})
+    private int basketSize;
+
+    @Param({"0", "2", "20"})
+    private int numberOfRules;
+
+    @Param({"10", "1000"})
+    private int numberOfProductCodes;
+
+    private final BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory();
+
+    private List<Product> products;
+    private List<PromotionalRule> promotionalRules;
+
+    @Setup
+    public void setUp() {
+        products = Baskets.products(basketSize, numberOfProductCodes);
+        promotionalRules = Baskets.rules(numberOfRules, numberOfProductCodes);
+    }
+
+    @Benchmark
+    public BasketSummary createBasketSummary() {
+        return basketSummaryFactory.createBasketSummary(products, promotionalRules);
+    }
+}
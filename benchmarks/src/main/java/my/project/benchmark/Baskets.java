@@ -0,0 +1,63 @@
+package my.project.benchmark;
+
+import my.project.Product;
+import my.project.PromotionalRule;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+final class Baskets {
+
+    // Baskets are generated with a fixed seed, so every run (and every fork) measures the same data
+
+    private Baskets() {
+    }
+
+    static List<Product> products(int basketSize, int numberOfProductCodes) {
+        List<Product> catalog = catalog(numberOfProductCodes);
+        Random random = new Random(31L * basketSize + numberOfProductCodes);
+        return IntStream.range(0, basketSize)
+                .mapToObj(i -> catalog.get(random.nextInt(numberOfProductCodes)))
+                .collect(toList());
+    }
+
+    // One threshold rule and the rest are product promotions spread over the product codes
+    static List<PromotionalRule> rules(int numberOfRules, int numberOfProductCodes) {
+        List<PromotionalRule> rules = new ArrayList<>();
+        if (numberOfRules > 0) {
+            rules.add(new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10));
+        }
+        for (int i = 1; i < numberOfRules; i++) {
+            rules.add(new OverTwoProductPromotionalRule(code(i % numberOfProductCodes), BigDecimal.valueOf(50, 2)));
+        }
+        return rules;
+    }
+
+    static PromotionalRule rule(String name, int numberOfProductCodes) {
+        switch (name) {
+            case "overTwoProduct":
+                return new OverTwoProductPromotionalRule(code(numberOfProductCodes / 2), BigDecimal.valueOf(50, 2));
+            case "priceOverThreshold":
+                return new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
+            default:
+                throw new IllegalArgumentException("Unknown rule: " + name);
+        }
+    }
+
+    private static List<Product> catalog(int numberOfProductCodes) {
+        return IntStream.range(0, numberOfProductCodes)
+                .mapToObj(i -> new Product(code(i), "product " + i, BigDecimal.valueOf(100 + i % 900, 2)))
+                .collect(toList());
+    }
+
+    private static String code(int index) {
+        return String.format("%06d", index);
+    }
+}
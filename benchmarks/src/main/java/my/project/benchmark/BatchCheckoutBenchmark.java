@@ -0,0 +1,77 @@
+package my.project.benchmark;
+
+import my.project.Checkout;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.batch.BatchCheckout;
+import my.project.summary.BasketSummaryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+// Prices 1000 baskets per invocation, one checkout per basket compared with a single batch call
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BatchCheckoutBenchmark {
+
+    private static final int NUMBER_OF_BASKETS = 1000;
+
+    @Param({"1", "10", "100"})
+    private int basketSize;
+
+    @Param({"0", "2", "20"})
+    private int numberOfRules;
+
+    @Param({"10", "1000"})
+    private int numberOfProductCodes;
+
+    private final BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory();
+
+    private List<List<Product>> baskets;
+    private PromotionPlan promotionPlan;
+    private BatchCheckout batchCheckout;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = Baskets.products(NUMBER_OF_BASKETS * basketSize, numberOfProductCodes);
+        baskets = IntStream.range(0, NUMBER_OF_BASKETS)
+                .mapToObj(index -> products.subList(index * basketSize, (index + 1) * basketSize))
+                .collect(toList());
+        promotionPlan = PromotionPlan.compile(Baskets.rules(numberOfRules, numberOfProductCodes));
+        batchCheckout = new BatchCheckout(promotionPlan, basketSummaryFactory);
+    }
+
+    @Benchmark
+    public double[] checkoutPerBasket() {
+        double[] totals = new double[baskets.size()];
+        for (int index = 0; index < totals.length; index++) {
+            Checkout checkout = new Checkout(promotionPlan, basketSummaryFactory);
+            baskets.get(index).forEach(checkout::scan);
+            totals[index] = checkout.total();
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public double[] batchCheckout() {
+        return batchCheckout.totals(baskets);
+    }
+}
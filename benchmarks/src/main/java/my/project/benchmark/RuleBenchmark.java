@@ -0,0 +1,56 @@
+package my.project.benchmark;
+
+import my.project.Product;
+import my.project.PromotionalRule;
+import my.project.summary.BasketSummary;
+import my.project.summary.BasketSummaryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rules modify the basket summary, so every invocation prices a fresh summary with a single rule.
+// The cost of the rule itself is the difference to BasketSummaryFactoryBenchmark with numberOfRules = 0.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RuleBenchmark {
+
+    @Param({"overTwoProduct", "priceOverThreshold"})
+    private String rule;
+
+    @Param({"1", "100", "10000", "100000"})
+    private int basketSize;
+
+    @Param({"10", "1000"})
+    private int numberOfProductCodes;
+
+    private final BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory();
+
+    private List<Product> products;
+    private List<PromotionalRule> promotionalRules;
+
+    @Setup
+    public void setUp() {
+        products = Baskets.products(basketSize, numberOfProductCodes);
+        promotionalRules = List.of(Baskets.rule(rule, numberOfProductCodes));
+    }
+
+    @Benchmark
+    public BasketSummary applyRule() {
+        return basketSummaryFactory.createBasketSummary(products, promotionalRules);
+    }
+}
@@ -0,0 +1,269 @@
+package my.project.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import my.project.Basket;
+import my.project.Checkout;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionRegistry;
+import my.project.batch.BatchCheckout;
+import my.project.catalog.ProductCatalog;
+import my.project.summary.BasketSummaryFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class CheckoutServer implements AutoCloseable {
+
+    // Checkout over HTTP - every request is handled on its own virtual thread, so a node can keep tens of thousands
+    // of open baskets and slow clients without tuning any thread pool. Promotions come from a PromotionRegistry:
+    // a basket is priced with the plan which was current when it was opened, new baskets and batches of orders
+    // get plans published later.
+    //
+    // POST   /baskets                 opens a basket, responds with its id
+    // POST   /baskets/{id}/products   scans products, one per line: code or code and quantity ("001" or "001,2")
+    // GET    /baskets/{id}/total      responds with the total price of the basket
+    // DELETE /baskets/{id}            closes the basket
+    // POST   /totals                  prices many baskets at once, one per line: id of the order and codes of
+    //                                 the products ("order-1,001,002"), responds with the ids and totals ("order-1,54.25")
+    //
+    // Unknown products and malformed requests (including quantities or totals out of range) get 400, unknown baskets 404.
+    // Baskets which were not used for the time to live are closed by a periodic sweep, so abandoned baskets don't stay
+    // in memory.
+
+    private static final String BASKETS = "/baskets";
+    private static final String TOTALS = "/totals";
+    private static final String SEPARATOR = ",";
+    private static final Duration DEFAULT_BASKET_TIME_TO_LIVE = Duration.ofMinutes(30);
+
+    private final PromotionRegistry promotionRegistry;
+    private final BasketSummaryFactory basketSummaryFactory;
+    private final ProductCatalog productCatalog;
+    private final Map<Long, OpenBasket> openBaskets = new ConcurrentHashMap<>();
+    private final AtomicLong nextBasketId = new AtomicLong(1);
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService sweepExecutorService;
+    private final long basketTimeToLiveNanos;
+    private final HttpServer httpServer;
+
+    // Checkout is not thread-safe, requests of the same basket take its lock (not synchronized, which would pin the carrier thread)
+    private record OpenBasket(Checkout checkout, ReentrantLock lock, AtomicLong lastUsedNanos) {
+
+        void use() {
+            lastUsedNanos.set(System.nanoTime());
+        }
+    }
+
+    public CheckoutServer(PromotionPlan promotionPlan, ProductCatalog productCatalog, InetSocketAddress address) throws IOException {
+        this(new PromotionRegistry(Objects.requireNonNull(promotionPlan, "promotionPlan")), productCatalog, address);
+    }
+
+    public CheckoutServer(PromotionRegistry promotionRegistry, ProductCatalog productCatalog, InetSocketAddress address) throws IOException {
+        this(promotionRegistry, productCatalog, address, DEFAULT_BASKET_TIME_TO_LIVE);
+    }
+
+    public CheckoutServer(PromotionRegistry promotionRegistry, ProductCatalog productCatalog, InetSocketAddress address,
+                          Duration basketTimeToLive) throws IOException {
+        if (basketTimeToLive.isNegative() || basketTimeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live of baskets must be positive");
+        }
+        this.basketTimeToLiveNanos = basketTimeToLive.toNanos();
+        this.promotionRegistry = Objects.requireNonNull(promotionRegistry, "promotionRegistry");
+        this.productCatalog = Objects.requireNonNull(productCatalog, "productCatalog");
+        this.basketSummaryFactory = new BasketSummaryFactory();
+        this.httpServer = HttpServer.create(Objects.requireNonNull(address, "address"), 0);
+        this.httpServer.createContext(BASKETS, this::handleBaskets);
+        this.httpServer.createContext(TOTALS, this::handleTotals);
+        this.httpServer.setExecutor(executorService);
+        this.sweepExecutorService = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("basket-sweep").factory());
+    }
+
+    public void start() {
+        httpServer.start();
+        long sweepIntervalNanos = Math.max(basketTimeToLiveNanos / 2, 1);
+        sweepExecutorService.scheduleWithFixedDelay(this::removeIdleBaskets, sweepIntervalNanos, sweepIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    public int getNumberOfOpenBaskets() {
+        return openBaskets.size();
+    }
+
+    @Override
+    public void close() {
+        sweepExecutorService.shutdownNow();
+        httpServer.stop(0);
+        executorService.close();
+    }
+
+    // Closes the baskets which were not used for the time to live, returns the number of closed baskets
+    int removeIdleBaskets() {
+        long now = System.nanoTime();
+        int numberOfOpenBaskets = openBaskets.size();
+        openBaskets.values().removeIf(openBasket -> now - openBasket.lastUsedNanos().get() > basketTimeToLiveNanos);
+        return numberOfOpenBaskets - openBaskets.size();
+    }
+
+    private void handleBaskets(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                handleBasket(exchange, exchange.getRequestURI().getPath().substring(BASKETS.length()), exchange.getRequestMethod());
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                respond(exchange, 400, e.getMessage());
+            }
+        }
+    }
+
+    private void handleBasket(HttpExchange exchange, String path, String method) throws IOException {
+        if ((path.isEmpty() || path.equals("/")) && method.equals("POST")) {
+            long basketId = nextBasketId.getAndIncrement();
+            Checkout checkout = new Checkout(promotionRegistry.getPromotionPlan(), basketSummaryFactory, productCatalog);
+            openBaskets.put(basketId, new OpenBasket(checkout, new ReentrantLock(), new AtomicLong(System.nanoTime())));
+            respond(exchange, 201, Long.toString(basketId));
+            return;
+        }
+        // "/{id}" or "/{id}/{operation}"
+        String[] pathElements = path.split("/");
+        OpenBasket openBasket = pathElements.length >= 2 && pathElements[0].isEmpty()
+                ? openBaskets.get(parseBasketId(pathElements[1]))
+                : null;
+        if (openBasket != null) {
+            openBasket.use();
+        }
+        if (openBasket == null) {
+            respond(exchange, 404, "Unknown basket");
+        } else if (pathElements.length == 2 && method.equals("DELETE")) {
+            openBaskets.remove(parseBasketId(pathElements[1]));
+            respond(exchange, 204, null);
+        } else if (pathElements.length == 3 && pathElements[2].equals("products") && method.equals("POST")) {
+            Basket products = readProducts(readLines(exchange));
+            openBasket.lock().lock();
+            try {
+                // All or nothing, a batch which would overflow the basket doesn't change it
+                openBasket.checkout().scanAll(products);
+            } finally {
+                openBasket.lock().unlock();
+            }
+            respond(exchange, 204, null);
+        } else if (pathElements.length == 3 && pathElements[2].equals("total") && method.equals("GET")) {
+            double total;
+            openBasket.lock().lock();
+            try {
+                total = openBasket.checkout().total();
+            } finally {
+                openBasket.lock().unlock();
+            }
+            respond(exchange, 200, format(total));
+        } else {
+            respond(exchange, 405, "Unsupported request");
+        }
+    }
+
+    private void handleTotals(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "Unsupported request");
+                return;
+            }
+            try {
+                respond(exchange, 200, priceOrders(readLines(exchange)));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                respond(exchange, 400, e.getMessage());
+            }
+        }
+    }
+
+    private String priceOrders(List<String> lines) {
+        List<String> orderIds = new ArrayList<>(lines.size());
+        List<List<Product>> baskets = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            String[] fields = line.split(SEPARATOR);
+            List<Product> basket = new ArrayList<>(fields.length - 1);
+            for (int field = 1; field < fields.length; field++) {
+                basket.add(productCatalog.getProduct(fields[field].trim()));
+            }
+            orderIds.add(fields[0]);
+            baskets.add(basket);
+        }
+        double[] totals = new BatchCheckout(promotionRegistry.getPromotionPlan(), basketSummaryFactory).totals(baskets);
+        StringBuilder response = new StringBuilder();
+        for (int order = 0; order < totals.length; order++) {
+            response.append(orderIds.get(order)).append(SEPARATOR).append(format(totals[order])).append('\n');
+        }
+        return response.toString();
+    }
+
+    // All the lines are read before anything is scanned, so a malformed request doesn't change the basket
+    private Basket readProducts(List<String> lines) {
+        Basket products = new Basket();
+        for (String line : lines) {
+            String[] fields = line.split(SEPARATOR);
+            if (fields.length > 2) {
+                throw new IllegalArgumentException("Malformed product: " + line);
+            }
+            long quantity = fields.length == 2 ? parseQuantity(fields[1]) : 1;
+            products.add(productCatalog.getProduct(fields[0].trim()), quantity);
+        }
+        return products;
+    }
+
+    private static List<String> readLines(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), UTF_8).lines()
+                .filter(line -> !line.isBlank())
+                .toList();
+    }
+
+    private static long parseBasketId(String basketId) {
+        try {
+            return Long.parseLong(basketId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed basket id: " + basketId);
+        }
+    }
+
+    private static long parseQuantity(String quantity) {
+        try {
+            return Long.parseLong(quantity.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed quantity: " + quantity);
+        }
+    }
+
+    private static String format(double total) {
+        return BigDecimal.valueOf(total).setScale(2, RoundingMode.HALF_EVEN).toPlainString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package my.project.server;
+
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import my.project.catalog.MappedProductCatalog;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ServerRunner {
+
+    // Starts the checkout server:
+    //   java -jar server.jar <port> <catalog file> [rule ...]
+    // The catalog file is written by MappedProductCatalog.write, rules are given as
+    //   over-two:<product code>:<new price>         e.g. over-two:001:8.50
+    //   over-threshold:<threshold>:<percents>       e.g. over-threshold:60:10
+
+    private ServerRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java -jar server.jar <port> <catalog file> [over-two:<code>:<price> | over-threshold:<threshold>:<percents> ...]");
+            System.exit(1);
+        }
+        List<PromotionalRule> promotionalRules = new ArrayList<>();
+        for (int index = 2; index < args.length; index++) {
+            promotionalRules.add(parseRule(args[index]));
+        }
+        CheckoutServer checkoutServer = new CheckoutServer(PromotionPlan.compile(promotionalRules),
+                MappedProductCatalog.open(Path.of(args[1])), new InetSocketAddress(Integer.parseInt(args[0])));
+        Runtime.getRuntime().addShutdownHook(new Thread(checkoutServer::close));
+        checkoutServer.start();
+        System.out.println("Checkout server listening on " + checkoutServer.getAddress());
+    }
+
+    static PromotionalRule parseRule(String rule) {
+        String[] fields = rule.split(":");
+        if (fields.length == 3 && fields[0].equals("over-two")) {
+            return new OverTwoProductPromotionalRule(fields[1], new BigDecimal(fields[2]));
+        }
+        if (fields.length == 3 && fields[0].equals("over-threshold")) {
+            return new PriceOverThresholdPromotionalRule(new BigDecimal(fields[1]), Integer.parseInt(fields[2]));
+        }
+        throw new IllegalArgumentException("Unknown rule: " + rule);
+    }
+}
@@ -0,0 +1,197 @@
+package my.project.server;
+
+import my.project.Product;
+import my.project.PromotionRegistry;
+import my.project.catalog.InMemoryProductCatalog;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CheckoutServerTest {
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+    private final Product kidsShirt = new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95));
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private PromotionRegistry promotionRegistry;
+    private CheckoutServer checkoutServer;
+
+    @Before
+    public void startServer() throws IOException {
+        promotionRegistry = new PromotionRegistry(List.of(
+                new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10),
+                new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50))));
+        checkoutServer = new CheckoutServer(promotionRegistry, new InMemoryProductCatalog(List.of(travelCardHolder, cufflinks, kidsShirt)),
+                new InetSocketAddress("localhost", 0));
+        checkoutServer.start();
+    }
+
+    @After
+    public void stopServer() {
+        checkoutServer.close();
+    }
+
+    @Test
+    public void shouldScanProductsAndReturnTotal() throws Exception {
+        // given
+        String basketId = send("POST", "/baskets", "").body();
+
+        // when
+        send("POST", "/baskets/" + basketId + "/products", "001\n002");
+        send("POST", "/baskets/" + basketId + "/products", "003\n001,1\n");
+        HttpResponse<String> total = send("GET", "/baskets/" + basketId + "/total", null);
+
+        // then
+        assertThat(total.statusCode()).isEqualTo(200);
+        assertThat(total.body()).isEqualTo("73.76");
+    }
+
+    @Test
+    public void shouldCloseBasket() throws Exception {
+        // given
+        String basketId = send("POST", "/baskets", "").body();
+
+        // when
+        HttpResponse<String> response = send("DELETE", "/baskets/" + basketId, null);
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(204);
+        assertThat(send("GET", "/baskets/" + basketId + "/total", null).statusCode()).isEqualTo(404);
+        assertThat(checkoutServer.getNumberOfOpenBaskets()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldPriceManyBasketsAtOnce() throws Exception {
+        // when
+        HttpResponse<String> response = send("POST", "/totals", "order-1,001,002,003\norder-2,001,003,001\n");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("order-1,66.78\norder-2,36.95\n");
+    }
+
+    @Test
+    public void shouldPriceOpenBasketsWithPromotionsTheyStartedWith() throws Exception {
+        // given
+        String oldBasketId = send("POST", "/baskets", "").body();
+        send("POST", "/baskets/" + oldBasketId + "/products", "001,2\n002\n003");
+
+        // when
+        promotionRegistry.publish(List.of(new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 20)));
+        String newBasketId = send("POST", "/baskets", "").body();
+        send("POST", "/baskets/" + newBasketId + "/products", "001,2\n002\n003");
+
+        // then
+        assertThat(send("GET", "/baskets/" + oldBasketId + "/total", null).body()).isEqualTo("73.76");
+        assertThat(send("GET", "/baskets/" + newBasketId + "/total", null).body()).isEqualTo("66.76");
+        assertThat(send("POST", "/totals", "order-1,001,001,002,003").body()).isEqualTo("order-1,66.76\n");
+    }
+
+    @Test
+    public void shouldNotScanAnythingWhenProductIsUnknown() throws Exception {
+        // given
+        String basketId = send("POST", "/baskets", "").body();
+
+        // when
+        HttpResponse<String> response = send("POST", "/baskets/" + basketId + "/products", "001\nunknown");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(send("GET", "/baskets/" + basketId + "/total", null).body()).isEqualTo("0.00");
+    }
+
+    @Test
+    public void shouldNotScanAnythingWhenQuantityOverflows() throws Exception {
+        // given
+        String basketId = send("POST", "/baskets", "").body();
+        send("POST", "/baskets/" + basketId + "/products", "002");
+
+        // when
+        HttpResponse<String> response = send("POST", "/baskets/" + basketId + "/products", "001\n003," + Long.MAX_VALUE / 100);
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(400);
+        assertThat(send("GET", "/baskets/" + basketId + "/total", null).body()).isEqualTo("45.00");
+    }
+
+    @Test
+    public void shouldCloseIdleBaskets() throws Exception {
+        // given
+        checkoutServer.close();
+        checkoutServer = new CheckoutServer(promotionRegistry, new InMemoryProductCatalog(List.of(travelCardHolder)),
+                new InetSocketAddress("localhost", 0), Duration.ofMillis(200));
+        checkoutServer.start();
+        String idleBasketId = send("POST", "/baskets", "").body();
+        Thread.sleep(150);
+        String usedBasketId = send("POST", "/baskets", "").body();
+        Thread.sleep(100);
+        send("POST", "/baskets/" + usedBasketId + "/products", "001");
+
+        // when
+        // the periodic sweep may have closed it already
+        checkoutServer.removeIdleBaskets();
+
+        // then
+        assertThat(checkoutServer.getNumberOfOpenBaskets()).isEqualTo(1);
+        assertThat(send("GET", "/baskets/" + idleBasketId + "/total", null).statusCode()).isEqualTo(404);
+        assertThat(send("GET", "/baskets/" + usedBasketId + "/total", null).body()).isEqualTo("9.25");
+    }
+
+    @Test
+    public void shouldRespondWithNotFoundForUnknownBasket() throws Exception {
+        // when & then
+        assertThat(send("GET", "/baskets/42/total", null).statusCode()).isEqualTo(404);
+        assertThat(send("GET", "/baskets/unknown/total", null).statusCode()).isEqualTo(400);
+    }
+
+    @Test
+    public void shouldHandleManyBasketsConcurrently() throws Exception {
+        // given
+        List<Future<String>> totals = new ArrayList<>();
+
+        // when
+        try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int basket = 0; basket < 200; basket++) {
+                totals.add(executorService.submit(() -> {
+                    String basketId = send("POST", "/baskets", "").body();
+                    send("POST", "/baskets/" + basketId + "/products", "001");
+                    send("POST", "/baskets/" + basketId + "/products", "002\n001");
+                    return send("GET", "/baskets/" + basketId + "/total", null).body();
+                }));
+            }
+        }
+
+        // then
+        for (Future<String> total : totals) {
+            assertThat(total.get()).isEqualTo("55.80");
+        }
+        assertThat(checkoutServer.getNumberOfOpenBaskets()).isEqualTo(200);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + checkoutServer.getAddress().getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,23 @@
+package my.project.server;
+
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerRunnerTest {
+
+    @Test
+    public void shouldParseRules() {
+        // when & then
+        assertThat(ServerRunner.parseRule("over-two:001:8.50")).isInstanceOf(OverTwoProductPromotionalRule.class);
+        assertThat(ServerRunner.parseRule("over-threshold:60:10")).isInstanceOf(PriceOverThresholdPromotionalRule.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenRuleIsUnknown() {
+        // when & then
+        ServerRunner.parseRule("over-three:001:8.50");
+    }
+}
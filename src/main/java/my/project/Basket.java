@@ -0,0 +1,87 @@
+package my.project;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class Basket {
+
+    // Scanned products stored as runs - consecutive scans of the same product are a single line with a quantity,
+    // so buying 500 identical items is one line instead of 500
+
+    private final List<Product> products;
+    private long[] quantities;
+
+    public Basket() {
+        this.products = new ArrayList<>();
+        this.quantities = new long[8];
+    }
+
+    public static Basket of(@NonNull List<Product> products) {
+        Basket basket = new Basket();
+        products.forEach(product -> basket.add(product, 1));
+        return basket;
+    }
+
+    public void add(@NonNull Product product, long quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        int lastLine = products.size() - 1;
+        if (lastLine >= 0 && products.get(lastLine).equals(product)) {
+            quantities[lastLine] = Math.addExact(quantities[lastLine], quantity);
+            return;
+        }
+        if (products.size() == quantities.length) {
+            quantities = Arrays.copyOf(quantities, 2 * quantities.length);
+        }
+        quantities[products.size()] = quantity;
+        products.add(product);
+    }
+
+    // Removes all the lines, so the basket can be reused
+    public void clear() {
+        products.clear();
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    public Product getProduct(int line) {
+        return products.get(line);
+    }
+
+    public long getQuantity(int line) {
+        return quantities[line];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Basket)) {
+            return false;
+        }
+        Basket otherBasket = (Basket) other;
+        return products.equals(otherBasket.products)
+                && Arrays.equals(quantities, 0, products.size(), otherBasket.quantities, 0, products.size());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * products.hashCode() + Arrays.hashCode(Arrays.copyOf(quantities, products.size()));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder lines = new StringBuilder();
+        for (int line = 0; line < products.size(); line++) {
+            lines.append(line == 0 ? "" : ", ").append(quantities[line]).append(" x ").append(products.get(line));
+        }
+        return "Basket(" + lines + ")";
+    }
+}
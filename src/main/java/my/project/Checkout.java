@@ -1,35 +1,148 @@
 package my.project;
 
 import lombok.NonNull;
+import my.project.catalog.ProductCatalog;
+import my.project.metrics.PricingMetrics;
 import my.project.summary.BasketSummaryFactory;
+import my.project.summary.PricingCache;
+import my.project.summary.PricingContext;
 
-import java.util.LinkedList;
 import java.util.List;
 
-import static java.math.BigDecimal.ZERO;
-import static java.math.RoundingMode.CEILING;
-
 public class Checkout {
 
-    private final List<PromotionalRule> promotionalRules;
+    private final PromotionPlan promotionPlan;
     private final BasketSummaryFactory basketSummaryFactory;
-    private final List<Product> products;
+    private final Basket basket;
+
+    // Optional, used to scan products by code or id
+    private final ProductCatalog productCatalog;
+
+    // Optional, used instead of the factory to price baskets which were already priced by other checkouts
+    private final PricingCache pricingCache;
+
+    private final PricingMetrics pricingMetrics;
+
+    // Basket summary reused by every total(), so the steady state doesn't allocate a new one
+    private final PricingContext pricingContext;
+
+    // Price and quantity of all the scanned units before any rule, used to check that a scan cannot overflow
+    private long grossPrice;
+    private long totalQuantity;
+
+    // Total price after applying the rules (in minor units), kept up to date by scan when possible
+    private long totalPrice;
+    private boolean totalPriceUpToDate;
 
     public Checkout(@NonNull List<PromotionalRule> promotionalRules, @NonNull BasketSummaryFactory basketSummaryFactory) {
-        this.promotionalRules = List.copyOf(promotionalRules);
+        this(PromotionPlan.compile(promotionalRules), basketSummaryFactory);
+    }
+
+    // The same plan can be shared by any number of checkouts
+    public Checkout(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory) {
+        this(promotionPlan, basketSummaryFactory, null, null, PricingMetrics.NONE);
+    }
+
+    // The current plan of the registry is used for the whole basket, plans published later apply to new checkouts
+    public Checkout(@NonNull PromotionRegistry promotionRegistry, @NonNull BasketSummaryFactory basketSummaryFactory) {
+        this(promotionRegistry.getPromotionPlan(), basketSummaryFactory);
+    }
+
+    public Checkout(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory,
+                    @NonNull ProductCatalog productCatalog) {
+        this(promotionPlan, basketSummaryFactory, productCatalog, null, PricingMetrics.NONE);
+    }
+
+    public Checkout(@NonNull PromotionPlan promotionPlan, @NonNull PricingCache pricingCache) {
+        this(promotionPlan, null, null, pricingCache, PricingMetrics.NONE);
+    }
+
+    // Latency of every total() is recorded to the given metrics
+    public Checkout(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory,
+                    @NonNull PricingMetrics pricingMetrics) {
+        this(promotionPlan, basketSummaryFactory, null, null, pricingMetrics);
+    }
+
+    private Checkout(PromotionPlan promotionPlan, BasketSummaryFactory basketSummaryFactory, ProductCatalog productCatalog,
+                     PricingCache pricingCache, PricingMetrics pricingMetrics) {
+        this.promotionPlan = promotionPlan;
         this.basketSummaryFactory = basketSummaryFactory;
-        this.products = new LinkedList<>();
+        this.basket = new Basket();
+        this.productCatalog = productCatalog;
+        this.pricingCache = pricingCache;
+        this.pricingMetrics = pricingMetrics;
+        this.pricingContext = new PricingContext();
     }
 
     public void scan(@NonNull Product product) {
-        products.add(product);
+        scan(product, 1);
+    }
+
+    // Scans the given number of units of the same product at once
+    // The price of the scanned units is calculated first, so a scan which would overflow doesn't change the basket
+    public void scan(@NonNull Product product, long quantity) {
+        long linePrice = Math.multiplyExact(product.getPriceInMinorUnits(), quantity);
+        long newGrossPrice = Math.addExact(grossPrice, linePrice);
+        long newTotalQuantity = Math.addExact(totalQuantity, quantity);
+        if (totalPriceUpToDate && !promotionPlan.isAffectedBy(product)) {
+            long newTotalPrice = Math.addExact(totalPrice, linePrice);
+            basket.add(product, quantity);
+            totalPrice = newTotalPrice;
+        } else {
+            basket.add(product, quantity);
+            totalPriceUpToDate = false;
+        }
+        grossPrice = newGrossPrice;
+        totalQuantity = newTotalQuantity;
+    }
+
+    // Scans all the lines of the given basket or none of them - all the lines are checked for overflow first.
+    // Rules only lower the prices, so a basket whose gross price fits cannot overflow while it's priced.
+    public void scanAll(@NonNull Basket products) {
+        long newGrossPrice = grossPrice;
+        long newTotalQuantity = totalQuantity;
+        for (int line = 0; line < products.size(); line++) {
+            newGrossPrice = Math.addExact(newGrossPrice, Math.multiplyExact(products.getProduct(line).getPriceInMinorUnits(),
+                    products.getQuantity(line)));
+            newTotalQuantity = Math.addExact(newTotalQuantity, products.getQuantity(line));
+        }
+        for (int line = 0; line < products.size(); line++) {
+            scan(products.getProduct(line), products.getQuantity(line));
+        }
+    }
+
+    public void scanByCode(@NonNull String productCode) {
+        scan(getProductCatalog().getProduct(productCode));
+    }
+
+    public void scanById(int productId) {
+        scan(getProductCatalog().getProduct(productId));
     }
 
     public Double total() {
-        return basketSummaryFactory.createBasketSummary(products, promotionalRules)
-                .totalPrice()
-                .setScale(2, CEILING)
-                .max(ZERO)
-                .doubleValue();
+        if (!pricingMetrics.isEnabled()) {
+            return Money.toDouble(Math.max(totalPrice(), 0));
+        }
+        long start = System.nanoTime();
+        long totalPrice = totalPrice();
+        pricingMetrics.recordTotal(System.nanoTime() - start);
+        return Money.toDouble(Math.max(totalPrice, 0));
+    }
+
+    private long totalPrice() {
+        if (!totalPriceUpToDate) {
+            totalPrice = pricingCache != null
+                    ? pricingCache.totalPrice(basket, promotionPlan)
+                    : basketSummaryFactory.createBasketSummary(basket, promotionPlan, pricingContext).totalPrice();
+            totalPriceUpToDate = true;
+        }
+        return totalPrice;
+    }
+
+    private ProductCatalog getProductCatalog() {
+        if (productCatalog == null) {
+            throw new IllegalStateException("Products can be scanned by code or id only with a product catalog");
+        }
+        return productCatalog;
     }
 }
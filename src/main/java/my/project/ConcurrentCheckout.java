@@ -0,0 +1,86 @@
+package my.project;
+
+import lombok.NonNull;
+import lombok.Value;
+import my.project.summary.BasketSummaryFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentCheckout {
+
+    // Checkout shared by many threads (e.g. several scanners and a web session adding to one basket).
+    // Scans are lock-free appends to a list linked backwards from its last node - a scan is published by
+    // a single compare-and-set of the last node. Products are never removed, so total() prices a snapshot
+    // of everything up to the last node, which contains every scan that returned before - it can run while
+    // other threads scan, without any lock, and gives the same total as Checkout for the same products.
+
+    private final PromotionPlan promotionPlan;
+    private final BasketSummaryFactory basketSummaryFactory;
+    private final AtomicReference<ScannedProduct> lastScannedProduct;
+
+    // Total of the last priced snapshot, reused while its last node is still the last one
+    private volatile PricedSnapshot lastPricedSnapshot;
+
+    public ConcurrentCheckout(@NonNull List<PromotionalRule> promotionalRules, @NonNull BasketSummaryFactory basketSummaryFactory) {
+        this(PromotionPlan.compile(promotionalRules), basketSummaryFactory);
+    }
+
+    public ConcurrentCheckout(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory) {
+        this.promotionPlan = promotionPlan;
+        this.basketSummaryFactory = basketSummaryFactory;
+        this.lastScannedProduct = new AtomicReference<>(ScannedProduct.NONE);
+    }
+
+    public void scan(@NonNull Product product) {
+        ScannedProduct scannedProduct = new ScannedProduct(product);
+        ScannedProduct previous;
+        do {
+            previous = lastScannedProduct.get();
+            scannedProduct.previous = previous;
+            scannedProduct.numberOfProducts = previous.numberOfProducts + 1;
+        } while (!lastScannedProduct.compareAndSet(previous, scannedProduct));
+    }
+
+    public Double total() {
+        ScannedProduct last = lastScannedProduct.get();
+        PricedSnapshot pricedSnapshot = lastPricedSnapshot;
+        if (pricedSnapshot == null || pricedSnapshot.getLast() != last) {
+            long totalPrice = basketSummaryFactory.createBasketSummary(snapshot(last), promotionPlan).totalPrice();
+            pricedSnapshot = new PricedSnapshot(last, totalPrice);
+            lastPricedSnapshot = pricedSnapshot;
+        }
+        return Money.toDouble(Math.max(pricedSnapshot.getTotalPrice(), 0));
+    }
+
+    // Products up to the given node, in the order of the scans
+    private static List<Product> snapshot(ScannedProduct last) {
+        Product[] products = new Product[last.numberOfProducts];
+        for (ScannedProduct scannedProduct = last; scannedProduct != ScannedProduct.NONE; scannedProduct = scannedProduct.previous) {
+            products[scannedProduct.numberOfProducts - 1] = scannedProduct.product;
+        }
+        return Arrays.asList(products);
+    }
+
+    // Node of the list of scans - previous and numberOfProducts are set before the node is published
+    // by the compare-and-set of lastScannedProduct and never change after that
+    private static final class ScannedProduct {
+
+        private static final ScannedProduct NONE = new ScannedProduct(null);
+
+        private final Product product;
+        private ScannedProduct previous;
+        private int numberOfProducts;
+
+        private ScannedProduct(Product product) {
+            this.product = product;
+        }
+    }
+
+    @Value
+    private static class PricedSnapshot {
+        ScannedProduct last;
+        long totalPrice;
+    }
+}
@@ -0,0 +1,42 @@
+package my.project;
+
+import lombok.NonNull;
+
+import java.math.BigDecimal;
+
+import static java.math.RoundingMode.UNNECESSARY;
+
+public final class Money {
+
+    // Amounts are kept as a primitive long in minor units (cents), so calculating the total does not allocate.
+    // Rounding rules:
+    // * prices have to be exact in minor units - amounts with more decimal places are rejected
+    // * percentages of an amount are rounded down, so the customer never pays less than the exact total rounded up
+
+    public static final int SCALE = 2;
+
+    private static final int MINOR_UNITS = 100;
+
+    private Money() {
+    }
+
+    public static long of(@NonNull BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount has to be exact in minor units: " + amount, e);
+        }
+    }
+
+    public static BigDecimal toBigDecimal(long amount) {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+
+    public static double toDouble(long amount) {
+        return (double) amount / MINOR_UNITS;
+    }
+
+    public static long percentage(long amount, int percents) {
+        return Math.multiplyExact(amount, percents) / 100;
+    }
+}
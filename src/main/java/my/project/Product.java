@@ -1,6 +1,8 @@
 package my.project;
 
+import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import lombok.ToString;
 import lombok.Value;
 
 import java.math.BigDecimal;
@@ -17,4 +19,16 @@ public class Product {
     @NonNull
     BigDecimal price;
 
+    // The same price in minor units (see Money), calculated once instead of on every scan
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    long priceInMinorUnits;
+
+    public Product(@NonNull String code, @NonNull String name, @NonNull BigDecimal price) {
+        this.code = code;
+        this.name = name;
+        this.price = price;
+        this.priceInMinorUnits = Money.of(price);
+    }
+
 }
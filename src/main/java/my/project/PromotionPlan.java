@@ -0,0 +1,140 @@
+package my.project;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toList;
+
+@EqualsAndHashCode
+@ToString
+public final class PromotionPlan {
+
+    // Compiled, immutable form of a set of promotional rules - sorted by priority, without duplicates and with
+    // the product codes and requirements of the rules read up front. It's built once and shared by all the checkouts using the same
+    // promotions, so pricing a basket doesn't sort the rules again.
+
+    private static final AtomicLong NEXT_VERSION = new AtomicLong(1);
+
+    private final List<PromotionalRule> promotionalRules;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final List<Set<String>> productCodes;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final long[] minimumTotalPrices;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final long[] minimumQuantities;
+
+    // Answer of isAffectedBy for the rules using the default PromotionalRule.isAffectedBy - whether any of them works
+    // on the whole basket or has a minimum total price, and the codes of the others - so a scan is one lookup. Only the rules with their own
+    // isAffectedBy are asked.
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final boolean affectedByAnyProduct;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Set<String> affectingCodes;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final List<PromotionalRule> rulesWithOwnIsAffectedBy;
+
+    // Every compiled plan gets a new version, so anything remembered for one plan (see PricingCache)
+    // is never used for another one
+    @EqualsAndHashCode.Exclude
+    private final long version;
+
+    private PromotionPlan(List<PromotionalRule> promotionalRules) {
+        this.promotionalRules = promotionalRules;
+        this.productCodes = promotionalRules.stream()
+                .map(promotionalRule -> Set.copyOf(promotionalRule.productCodes()))
+                .collect(toList());
+        this.minimumTotalPrices = promotionalRules.stream().mapToLong(PromotionalRule::minimumTotalPrice).toArray();
+        this.minimumQuantities = promotionalRules.stream().mapToLong(PromotionalRule::minimumQuantity).toArray();
+        boolean affectedByAnyProduct = false;
+        Set<String> affectingCodes = new HashSet<>();
+        List<PromotionalRule> rulesWithOwnIsAffectedBy = new ArrayList<>();
+        for (int index = 0; index < promotionalRules.size(); index++) {
+            if (hasOwnIsAffectedBy(promotionalRules.get(index))) {
+                rulesWithOwnIsAffectedBy.add(promotionalRules.get(index));
+            } else if (productCodes.get(index).isEmpty() || minimumTotalPrices[index] > 0) {
+                affectedByAnyProduct = true;
+            } else {
+                affectingCodes.addAll(productCodes.get(index));
+            }
+        }
+        this.affectedByAnyProduct = affectedByAnyProduct;
+        this.affectingCodes = Set.copyOf(affectingCodes);
+        this.rulesWithOwnIsAffectedBy = List.copyOf(rulesWithOwnIsAffectedBy);
+        this.version = NEXT_VERSION.getAndIncrement();
+    }
+
+    public static PromotionPlan compile(@NonNull Collection<PromotionalRule> promotionalRules) {
+        return new PromotionPlan(new LinkedHashSet<>(promotionalRules).stream()
+                .sorted(comparingInt(PromotionalRule::priority))
+                .collect(toList()));
+    }
+
+    public List<PromotionalRule> getPromotionalRules() {
+        return List.copyOf(promotionalRules);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return promotionalRules.size();
+    }
+
+    public PromotionalRule getPromotionalRule(int index) {
+        return promotionalRules.get(index);
+    }
+
+    public Set<String> getProductCodes(int index) {
+        return productCodes.get(index);
+    }
+
+    public long getMinimumTotalPrice(int index) {
+        return minimumTotalPrices[index];
+    }
+
+    public long getMinimumQuantity(int index) {
+        return minimumQuantities[index];
+    }
+
+    public boolean isAffectedBy(@NonNull Product product) {
+        if (affectedByAnyProduct || affectingCodes.contains(product.getCode())) {
+            return true;
+        }
+        for (PromotionalRule promotionalRule : rulesWithOwnIsAffectedBy) {
+            if (promotionalRule.isAffectedBy(product)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasOwnIsAffectedBy(PromotionalRule promotionalRule) {
+        try {
+            return promotionalRule.getClass().getMethod("isAffectedBy", Product.class).getDeclaringClass() != PromotionalRule.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
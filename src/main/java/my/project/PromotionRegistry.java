@@ -0,0 +1,51 @@
+package my.project;
+
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+public class PromotionRegistry {
+
+    // Holds the current promotion plan of a shop. A new plan is compiled by the thread changing the promotions
+    // and then published with a single atomic write - readers never wait and never see a half-built plan.
+    // Checkouts take the current plan when they are created and keep it for the whole basket, so a basket is
+    // priced consistently with one version of the promotions while new baskets immediately get the new one.
+
+    private final AtomicReference<PromotionPlan> promotionPlan;
+
+    public PromotionRegistry(@NonNull PromotionPlan promotionPlan) {
+        this.promotionPlan = new AtomicReference<>(promotionPlan);
+    }
+
+    public PromotionRegistry(@NonNull Collection<PromotionalRule> promotionalRules) {
+        this(PromotionPlan.compile(promotionalRules));
+    }
+
+    public PromotionPlan getPromotionPlan() {
+        return promotionPlan.get();
+    }
+
+    // Returns the replaced plan
+    public PromotionPlan publish(@NonNull PromotionPlan newPromotionPlan) {
+        return promotionPlan.getAndSet(newPromotionPlan);
+    }
+
+    public PromotionPlan publish(@NonNull Collection<PromotionalRule> promotionalRules) {
+        return publish(PromotionPlan.compile(promotionalRules));
+    }
+
+    // Changes the rules of the current plan (e.g. adds a rule) and returns the published plan. When another thread
+    // publishes a plan in the meantime, the change is applied again to that plan, so no change is lost.
+    public PromotionPlan update(@NonNull UnaryOperator<List<PromotionalRule>> change) {
+        while (true) {
+            PromotionPlan currentPromotionPlan = promotionPlan.get();
+            PromotionPlan newPromotionPlan = PromotionPlan.compile(change.apply(currentPromotionPlan.getPromotionalRules()));
+            if (promotionPlan.compareAndSet(currentPromotionPlan, newPromotionPlan)) {
+                return newPromotionPlan;
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package my.project;
 
 import my.project.summary.BasketSummary;
 
+import java.util.Set;
+
 public interface PromotionalRule {
 
     // Rules need to have information about all of the products and discounts (this is why I put BasketSummary as a parameter)
@@ -9,4 +11,29 @@ public interface PromotionalRule {
 
     int priority();
 
+    // Codes of the products the rule works on (empty when it works on the whole basket) - the rule is skipped
+    // when there are no such products in the basket, and it can get its lines from BasketSummary.getLines
+    default Set<String> productCodes() {
+        return Set.of();
+    }
+
+    // Cheap pre-checks done before the rule is applied - the rule is skipped when the basket has a lower total price
+    // (in minor units) or a lower quantity of its products (of all the products when productCodes is empty).
+    // Zero means there is no such requirement.
+    default long minimumTotalPrice() {
+        return 0;
+    }
+
+    default long minimumQuantity() {
+        return 0;
+    }
+
+    // Checkout re-applies the rules only when a scanned product can change the outcome of at least one of them,
+    // otherwise the price of the product is just added to the last total. Any product can bring the basket
+    // over the minimum total price, so rules with one are affected by all the products.
+    default boolean isAffectedBy(Product product) {
+        Set<String> productCodes = productCodes();
+        return productCodes.isEmpty() || minimumTotalPrice() > 0 || productCodes.contains(product.getCode());
+    }
+
 }
@@ -0,0 +1,106 @@
+package my.project.audit;
+
+import lombok.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class AuditFileWriter implements AutoCloseable {
+
+    // Drains an AuditRingBuffer to a local file on its own background thread, so the pricing threads only
+    // write to the buffer. Records are appended to the file, one per line:
+    // id of the basket, version of the plan, index of the rule in the plan, class of the rule, id of the promotion
+    // (-1 when the rule doesn't set one), line of the basket (-1 for the whole basket), code of the product
+    // (empty for the whole basket), discount, e.g. "1,4,0,OverTwoProductPromotionalRule,-1,0,001,150"
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char SEPARATOR = ',';
+
+    private final AuditRingBuffer auditRingBuffer;
+    private final BufferedWriter writer;
+    private final ScheduledExecutorService executorService;
+    private IOException failure;
+
+    public AuditFileWriter(@NonNull AuditRingBuffer auditRingBuffer, @NonNull Path auditFile, long drainIntervalMillis) throws IOException {
+        if (drainIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Drain interval must be positive");
+        }
+        this.auditRingBuffer = auditRingBuffer;
+        this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(auditFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), UTF_8), BUFFER_SIZE);
+        this.executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-file-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executorService.scheduleWithFixedDelay(this::drain, drainIntervalMillis, drainIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Drains the records still in the buffer and closes the file, rethrows a failure of the background writes
+    @Override
+    public void close() throws IOException {
+        executorService.shutdown();
+        try {
+            executorService.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            drain();
+        } finally {
+            writer.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized void drain() {
+        if (failure != null) {
+            return;
+        }
+        try {
+            auditRingBuffer.drain(this::write);
+            writer.flush();
+        } catch (IOException e) {
+            failure = e;
+        } catch (UncheckedIOException e) {
+            failure = e.getCause();
+        }
+    }
+
+    private void write(AuditRecord auditRecord) {
+        try {
+            writer.write(Long.toString(auditRecord.getBasketId()));
+            writer.write(SEPARATOR);
+            writer.write(Long.toString(auditRecord.getPlanVersion()));
+            writer.write(SEPARATOR);
+            writer.write(Integer.toString(auditRecord.getRuleIndex()));
+            writer.write(SEPARATOR);
+            writer.write(auditRecord.getPromotionalRule().getClass().getSimpleName());
+            writer.write(SEPARATOR);
+            writer.write(Integer.toString(auditRecord.getPromotionId()));
+            writer.write(SEPARATOR);
+            writer.write(Integer.toString(auditRecord.getLine()));
+            writer.write(SEPARATOR);
+            if (auditRecord.getProduct() != null) {
+                writer.write(auditRecord.getProduct().getCode());
+            }
+            writer.write(SEPARATOR);
+            writer.write(Long.toString(auditRecord.getAmount()));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package my.project.audit;
+
+import lombok.Getter;
+import lombok.ToString;
+import my.project.Product;
+import my.project.PromotionalRule;
+
+@Getter
+@ToString
+public class AuditRecord {
+
+    // A single record read from AuditRingBuffer.drain - the same instance is filled with every drained record,
+    // so it's valid only until the consumer returns
+
+    public static final int WHOLE_BASKET = -1;
+    public static final int NO_PROMOTION_ID = -1;
+
+    private long basketId;
+    private long planVersion;
+    private int ruleIndex;
+    private PromotionalRule promotionalRule;
+
+    // Promotion of a rule made of many promotions, or NO_PROMOTION_ID
+    private int promotionId;
+
+    // Line of the basket or WHOLE_BASKET, the product is null for the whole basket
+    private int line;
+    private Product product;
+
+    // Discount in minor units
+    private long amount;
+
+    void set(long basketId, long planVersion, int ruleIndex, PromotionalRule promotionalRule, int promotionId, int line,
+             Product product, long amount) {
+        this.basketId = basketId;
+        this.planVersion = planVersion;
+        this.ruleIndex = ruleIndex;
+        this.promotionalRule = promotionalRule;
+        this.promotionId = promotionId;
+        this.line = line;
+        this.product = product;
+        this.amount = amount;
+    }
+}
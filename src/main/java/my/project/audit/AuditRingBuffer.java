@@ -0,0 +1,118 @@
+package my.project.audit;
+
+import lombok.NonNull;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public class AuditRingBuffer implements PricingAudit {
+
+    // Fixed-size buffer of audit records, allocated up front and stored in columns, so recording doesn't allocate.
+    // Any number of threads can record (a record takes the next sequence with a CAS and is published when it's
+    // written), a single thread drains them in order (see AuditFileWriter). When the buffer is full
+    // the new records are dropped and counted instead of waiting for the drain - pricing never blocks on the audit.
+
+    private final int capacity;
+    private final int mask;
+    private final long[] basketIds;
+    private final long[] planVersions;
+    private final int[] ruleIndexes;
+    private final PromotionalRule[] promotionalRules;
+    private final int[] promotionIds;
+    private final int[] lines;
+    private final Product[] products;
+    private final long[] amounts;
+
+    // Sequence number + 1 of the record published in every slot, 0 when none was published yet
+    private final AtomicLongArray publishedSequences;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong nextBasketId = new AtomicLong(1);
+    private final LongAdder droppedRecords = new LongAdder();
+    private final AuditRecord auditRecord = new AuditRecord();
+
+    // Sequence of the next record to drain, written only by the draining thread
+    private volatile long drainedSequence;
+
+    public AuditRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.basketIds = new long[capacity];
+        this.planVersions = new long[capacity];
+        this.ruleIndexes = new int[capacity];
+        this.promotionalRules = new PromotionalRule[capacity];
+        this.promotionIds = new int[capacity];
+        this.lines = new int[capacity];
+        this.products = new Product[capacity];
+        this.amounts = new long[capacity];
+        this.publishedSequences = new AtomicLongArray(capacity);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public long startBasket() {
+        return nextBasketId.getAndIncrement();
+    }
+
+    @Override
+    public void record(long basketId, @NonNull PromotionPlan promotionPlan, int ruleIndex, int promotionId, int line, Product product,
+                       long amount) {
+        long sequence;
+        do {
+            sequence = nextSequence.get();
+            if (sequence - drainedSequence >= capacity) {
+                droppedRecords.increment();
+                return;
+            }
+        } while (!nextSequence.compareAndSet(sequence, sequence + 1));
+        int slot = (int) sequence & mask;
+        basketIds[slot] = basketId;
+        planVersions[slot] = promotionPlan.getVersion();
+        ruleIndexes[slot] = ruleIndex;
+        promotionalRules[slot] = promotionPlan.getPromotionalRule(ruleIndex);
+        promotionIds[slot] = promotionId;
+        lines[slot] = line;
+        products[slot] = product;
+        amounts[slot] = amount;
+        publishedSequences.set(slot, sequence + 1);
+    }
+
+    // Passes the published records to the consumer in order and frees their slots, returns the number of drained records.
+    // The consumer gets the same AuditRecord instance for every record.
+    public synchronized int drain(@NonNull Consumer<AuditRecord> consumer) {
+        long sequence = drainedSequence;
+        int drainedRecords = 0;
+        int slot = (int) sequence & mask;
+        while (publishedSequences.get(slot) == sequence + 1) {
+            auditRecord.set(basketIds[slot], planVersions[slot], ruleIndexes[slot], promotionalRules[slot], promotionIds[slot],
+                    lines[slot], products[slot], amounts[slot]);
+            promotionalRules[slot] = null;
+            products[slot] = null;
+            consumer.accept(auditRecord);
+            drainedSequence = ++sequence;
+            drainedRecords++;
+            slot = (int) sequence & mask;
+        }
+        return drainedRecords;
+    }
+
+    // Records which didn't fit in the buffer
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,40 @@
+package my.project.audit;
+
+import my.project.Product;
+import my.project.PromotionPlan;
+
+public interface PricingAudit {
+
+    // Sink for the explanation of prices - which rule (and which of its promotions) gave which discount.
+    // The basket summary logs the changes of the rules only for an enabled audit, so NONE never sees a record.
+
+    PricingAudit NONE = new PricingAudit() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public long startBasket() {
+            return 0;
+        }
+
+        @Override
+        public void record(long basketId, PromotionPlan promotionPlan, int ruleIndex, int promotionId, int line, Product product,
+                           long amount) {
+        }
+    };
+
+    boolean isEnabled();
+
+    // Called before the rules are applied to a basket, returns the id of the basket for its records
+    long startBasket();
+
+    // Called for every change of a line price made by the ruleIndex-th rule of the plan, with the product of the line
+    // and the discount of the whole line in minor units (e.g. a reduction of 0.75 on 2 units is 150).
+    // A discount of the whole basket is recorded with line AuditRecord.WHOLE_BASKET and without a product.
+    // Rules made of many promotions tell which one made the change (see BasketSummary.setPromotionId),
+    // for the other rules the id is AuditRecord.NO_PROMOTION_ID.
+    void record(long basketId, PromotionPlan promotionPlan, int ruleIndex, int promotionId, int line, Product product, long amount);
+
+}
@@ -0,0 +1,58 @@
+package my.project.batch;
+
+import lombok.NonNull;
+import my.project.Money;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import my.project.summary.BasketSummary;
+import my.project.summary.BasketSummaryFactory;
+
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+public class BatchCheckout {
+
+    // Prices many baskets with the same promotions - the rules are compiled once and a single basket summary
+    // is reset and reused for all the baskets of a call. Totals are the same as Checkout.total() for each basket.
+
+    private final PromotionPlan promotionPlan;
+    private final BasketSummaryFactory basketSummaryFactory;
+
+    public BatchCheckout(@NonNull List<PromotionalRule> promotionalRules, @NonNull BasketSummaryFactory basketSummaryFactory) {
+        this(PromotionPlan.compile(promotionalRules), basketSummaryFactory);
+    }
+
+    public BatchCheckout(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory) {
+        this.promotionPlan = promotionPlan;
+        this.basketSummaryFactory = basketSummaryFactory;
+    }
+
+    public double[] totals(@NonNull List<? extends List<Product>> baskets) {
+        double[] totals = new double[baskets.size()];
+        totals(baskets, totals, 0);
+        return totals;
+    }
+
+    // Writes the totals of the baskets to the array, starting at the given position
+    void totals(List<? extends List<Product>> baskets, double[] totals, int offset) {
+        BasketSummary basketSummary = new BasketSummary(List.of());
+        int index = offset;
+        for (List<Product> basket : baskets) {
+            totals[index++] = total(basket, basketSummary);
+        }
+    }
+
+    // The baskets are priced lazily and in order, the stream is always sequential because the basket summary is reused
+    public DoubleStream totals(@NonNull Stream<? extends List<Product>> baskets) {
+        BasketSummary basketSummary = new BasketSummary(List.of());
+        return baskets.sequential().mapToDouble(basket -> total(basket, basketSummary));
+    }
+
+    private double total(List<Product> basket, BasketSummary basketSummary) {
+        basketSummary.reset(basket);
+        basketSummaryFactory.applyPromotions(basketSummary, promotionPlan);
+        return Money.toDouble(Math.max(basketSummary.totalPrice(), 0));
+    }
+}
@@ -0,0 +1,92 @@
+package my.project.batch;
+
+import lombok.NonNull;
+import my.project.Money;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.catalog.ProductCatalog;
+import my.project.summary.BasketSummary;
+import my.project.summary.BasketSummaryFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class OrderFilePricer {
+
+    // Prices orders read from a file and writes their totals to another file, one order at a time,
+    // so the whole file is never held in memory. The list of products and the basket summary are reused.
+    //
+    // Every line of the orders file is a single order: id of the order and codes of the scanned products,
+    // separated with commas (e.g. "order-1,001,002,001"). Empty lines are skipped.
+    // Every line of the totals file is the id of the order and its total, e.g. "order-1,54.25".
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char SEPARATOR = ',';
+
+    private final PromotionPlan promotionPlan;
+    private final BasketSummaryFactory basketSummaryFactory;
+    private final ProductCatalog productCatalog;
+
+    public OrderFilePricer(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory,
+                           @NonNull ProductCatalog productCatalog) {
+        this.promotionPlan = promotionPlan;
+        this.basketSummaryFactory = basketSummaryFactory;
+        this.productCatalog = productCatalog;
+    }
+
+    // Returns the number of priced orders
+    public long price(@NonNull Path orders, @NonNull Path totals) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(orders), UTF_8), BUFFER_SIZE);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(totals), UTF_8), BUFFER_SIZE)) {
+            List<Product> products = new ArrayList<>();
+            BasketSummary basketSummary = new BasketSummary(products);
+            long numberOfOrders = 0;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String orderId = readOrder(line, lineNumber, products);
+                basketSummary.reset(products);
+                basketSummaryFactory.applyPromotions(basketSummary, promotionPlan);
+                writer.write(orderId);
+                writer.write(SEPARATOR);
+                writer.write(Money.toBigDecimal(Math.max(basketSummary.totalPrice(), 0)).toPlainString());
+                writer.newLine();
+                numberOfOrders++;
+            }
+            return numberOfOrders;
+        }
+    }
+
+    private String readOrder(String line, long lineNumber, List<Product> products) {
+        products.clear();
+        int end = line.indexOf(SEPARATOR);
+        String orderId = end < 0 ? line : line.substring(0, end);
+        if (orderId.isEmpty()) {
+            throw new IllegalArgumentException("Missing id of the order in line " + lineNumber);
+        }
+        while (end >= 0) {
+            int start = end + 1;
+            end = line.indexOf(SEPARATOR, start);
+            String productCode = end < 0 ? line.substring(start) : line.substring(start, end);
+            try {
+                products.add(productCatalog.getProduct(productCode));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid order in line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return orderId;
+    }
+}
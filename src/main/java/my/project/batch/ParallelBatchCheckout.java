@@ -0,0 +1,75 @@
+package my.project.batch;
+
+import lombok.NonNull;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.summary.BasketSummaryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelBatchCheckout {
+
+    // Spreads pricing of the baskets over a fork-join pool. Baskets are split into ranges, every range is priced
+    // by BatchCheckout (with its own basket summary) and the totals are written at the positions of the baskets,
+    // so the result is in input order and exactly the same as the result of a sequential BatchCheckout.
+    // Rules of the plan are shared by all the threads, so they cannot keep any state between the baskets.
+
+    private static final int DEFAULT_BASKETS_PER_TASK = 256;
+
+    private final BatchCheckout batchCheckout;
+    private final ForkJoinPool forkJoinPool;
+    private final int basketsPerTask;
+
+    public ParallelBatchCheckout(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory,
+                                 @NonNull ForkJoinPool forkJoinPool) {
+        this(promotionPlan, basketSummaryFactory, forkJoinPool, DEFAULT_BASKETS_PER_TASK);
+    }
+
+    public ParallelBatchCheckout(@NonNull PromotionPlan promotionPlan, @NonNull BasketSummaryFactory basketSummaryFactory,
+                                 @NonNull ForkJoinPool forkJoinPool, int basketsPerTask) {
+        if (basketsPerTask <= 0) {
+            throw new IllegalArgumentException("Number of baskets per task must be positive");
+        }
+        this.batchCheckout = new BatchCheckout(promotionPlan, basketSummaryFactory);
+        this.forkJoinPool = forkJoinPool;
+        this.basketsPerTask = basketsPerTask;
+    }
+
+    public double[] totals(@NonNull List<? extends List<Product>> baskets) {
+        List<? extends List<Product>> indexedBaskets = baskets instanceof RandomAccess ? baskets : new ArrayList<>(baskets);
+        double[] totals = new double[indexedBaskets.size()];
+        forkJoinPool.invoke(new PricingTask(indexedBaskets, 0, indexedBaskets.size(), totals));
+        return totals;
+    }
+
+    private class PricingTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<? extends List<Product>> baskets;
+        private final int from;
+        private final int to;
+        private final double[] totals;
+
+        private PricingTask(List<? extends List<Product>> baskets, int from, int to, double[] totals) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+            this.totals = totals;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= basketsPerTask) {
+                batchCheckout.totals(baskets.subList(from, to), totals, from);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PricingTask(baskets, from, middle, totals), new PricingTask(baskets, middle, to, totals));
+            }
+        }
+    }
+}
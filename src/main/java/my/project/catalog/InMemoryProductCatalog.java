@@ -0,0 +1,65 @@
+package my.project.catalog;
+
+import lombok.NonNull;
+import my.project.Product;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class InMemoryProductCatalog implements ProductCatalog {
+
+    // Immutable catalog - every product is stored once, so all the checkouts scanning by code or id
+    // share the same Product instances (one reference per scanned line, no new objects)
+
+    private final Product[] products;
+    private final Map<String, Integer> productIds;
+
+    public InMemoryProductCatalog(@NonNull Collection<Product> products) {
+        List<Product> distinctProducts = new ArrayList<>(products.size());
+        Map<String, Integer> productIds = new HashMap<>();
+        for (Product product : products) {
+            Integer productId = productIds.putIfAbsent(product.getCode(), distinctProducts.size());
+            if (productId == null) {
+                distinctProducts.add(product);
+            } else if (!distinctProducts.get(productId).equals(product)) {
+                throw new IllegalArgumentException("Different products with the same code: " + product.getCode());
+            }
+        }
+        this.products = distinctProducts.toArray(new Product[0]);
+        this.productIds = productIds;
+    }
+
+    @Override
+    public int size() {
+        return products.length;
+    }
+
+    @Override
+    public int getProductId(@NonNull String productCode) {
+        Integer productId = productIds.get(productCode);
+        if (productId == null) {
+            throw new IllegalArgumentException("Unknown product code: " + productCode);
+        }
+        return productId;
+    }
+
+    @Override
+    public Product getProduct(int productId) {
+        if (productId < 0 || productId >= products.length) {
+            throw new IllegalArgumentException("Unknown product id: " + productId);
+        }
+        return products[productId];
+    }
+
+    // Returns the instance stored in the catalog instead of an equal product
+    public Product intern(@NonNull Product product) {
+        Product internedProduct = getProduct(product.getCode());
+        if (!internedProduct.equals(product)) {
+            throw new IllegalArgumentException("Product is different than the one in the catalog: " + product.getCode());
+        }
+        return internedProduct;
+    }
+}
@@ -0,0 +1,204 @@
+package my.project.catalog;
+
+import lombok.NonNull;
+import my.project.Money;
+import my.project.Product;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toList;
+
+public class MappedProductCatalog implements ProductCatalog {
+
+    // Read-only catalog backed by a memory-mapped file, so opening even a huge catalog doesn't parse anything.
+    // Products are created only when they are asked for, and the same instance is returned afterwards.
+    //
+    // File format (big-endian):
+    // * header: magic number, version, number of products, length of the code field
+    // * records sorted by code (UTF-8 bytes, unsigned), id of a product is the index of its record:
+    //   code (UTF-8, padded with zeros to the length of the code field, so codes cannot contain U+0000), price in minor units (long),
+    //   offset of the name (int), length of the name (int)
+    // * names (UTF-8), the offsets are relative to the start of this section
+    //
+    // The whole file is a single mapping, so a catalog is limited to 2 GB.
+
+    private static final int MAGIC_NUMBER = 0x4D504331;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int numberOfProducts;
+    private final int codeLength;
+    private final int recordSize;
+    private final int namesOffset;
+    private final AtomicReferenceArray<Product> products;
+
+    private MappedProductCatalog(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC_NUMBER) {
+            throw new IllegalArgumentException("Not a product catalog file");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Unsupported version of product catalog: " + buffer.getInt(Integer.BYTES));
+        }
+        int numberOfProducts = buffer.getInt(2 * Integer.BYTES);
+        int codeLength = buffer.getInt(3 * Integer.BYTES);
+        if (numberOfProducts < 0 || codeLength < 0) {
+            throw new IllegalArgumentException("Corrupted header of product catalog");
+        }
+        long recordSize = (long) codeLength + Long.BYTES + 2 * Integer.BYTES;
+        long namesOffset = HEADER_SIZE + numberOfProducts * recordSize;
+        if (namesOffset > buffer.limit()) {
+            throw new IllegalArgumentException("Truncated product catalog: " + numberOfProducts + " products need "
+                    + namesOffset + " bytes, the file has " + buffer.limit());
+        }
+        this.buffer = buffer;
+        this.numberOfProducts = numberOfProducts;
+        this.codeLength = codeLength;
+        this.recordSize = (int) recordSize;
+        this.namesOffset = (int) namesOffset;
+        this.products = new AtomicReferenceArray<>(numberOfProducts);
+    }
+
+    // The file stays mapped until the catalog is garbage collected
+    public static MappedProductCatalog open(@NonNull Path file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, READ)) {
+            if (fileChannel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Product catalog cannot be larger than 2 GB: " + fileChannel.size() + " bytes");
+            }
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            return new MappedProductCatalog(buffer);
+        }
+    }
+
+    public static void write(@NonNull Path file, @NonNull Collection<Product> products) throws IOException {
+        List<Product> sortedProducts = products.stream()
+                .sorted(Comparator.comparing(product -> product.getCode().getBytes(UTF_8), Arrays::compareUnsigned))
+                .collect(toList());
+        int codeLength = sortedProducts.stream().mapToInt(product -> product.getCode().getBytes(UTF_8).length).max().orElse(0);
+        ByteBuffer records = ByteBuffer.allocate(HEADER_SIZE + sortedProducts.size() * (codeLength + Long.BYTES + 2 * Integer.BYTES));
+        records.putInt(MAGIC_NUMBER).putInt(VERSION).putInt(sortedProducts.size()).putInt(codeLength);
+        ByteBuffer names = ByteBuffer.allocate(sortedProducts.stream().mapToInt(product -> product.getName().getBytes(UTF_8).length).sum());
+        byte[] previousCode = null;
+        for (Product product : sortedProducts) {
+            byte[] code = product.getCode().getBytes(UTF_8);
+            // Codes are padded with zeros, so a zero in the code would end it
+            if (product.getCode().indexOf('\u0000') >= 0) {
+                throw new IllegalArgumentException("Product code cannot contain U+0000: " + product.getCode());
+            }
+            if (Arrays.equals(code, previousCode)) {
+                throw new IllegalArgumentException("Different products with the same code: " + product.getCode());
+            }
+            byte[] name = product.getName().getBytes(UTF_8);
+            records.put(code).put(new byte[codeLength - code.length])
+                    .putLong(product.getPriceInMinorUnits())
+                    .putInt(names.position())
+                    .putInt(name.length);
+            names.put(name);
+            previousCode = code;
+        }
+        try (FileChannel fileChannel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {records.flip(), names.flip()};
+            // A single write can write only a part of the buffers
+            while (records.hasRemaining() || names.hasRemaining()) {
+                fileChannel.write(buffers);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return numberOfProducts;
+    }
+
+    @Override
+    public int getProductId(@NonNull String productCode) {
+        // Stored codes are padded with zeros, so a code with U+0000 could match a shorter one - such codes are never written
+        if (productCode.indexOf('\u0000') >= 0) {
+            throw new IllegalArgumentException("Unknown product code: " + productCode);
+        }
+        byte[] code = productCode.getBytes(UTF_8);
+        int low = 0;
+        int high = numberOfProducts - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareCode(middle, code);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        throw new IllegalArgumentException("Unknown product code: " + productCode);
+    }
+
+    @Override
+    public Product getProduct(int productId) {
+        if (productId < 0 || productId >= numberOfProducts) {
+            throw new IllegalArgumentException("Unknown product id: " + productId);
+        }
+        Product product = products.get(productId);
+        if (product == null) {
+            products.compareAndSet(productId, null, readProduct(productId));
+            product = products.get(productId);
+        }
+        return product;
+    }
+
+    private Product readProduct(int productId) {
+        int recordOffset = recordOffset(productId);
+        int codeSize = 0;
+        while (codeSize < codeLength && buffer.get(recordOffset + codeSize) != 0) {
+            codeSize++;
+        }
+        String code = readString(recordOffset, codeSize);
+        long price = buffer.getLong(recordOffset + codeLength);
+        int nameOffset = buffer.getInt(recordOffset + codeLength + Long.BYTES);
+        int nameLength = buffer.getInt(recordOffset + codeLength + Long.BYTES + Integer.BYTES);
+        if (nameOffset < 0 || nameLength < 0 || (long) namesOffset + nameOffset + nameLength > buffer.limit()) {
+            throw new IllegalArgumentException("Corrupted name of product " + productId);
+        }
+        String name = readString(namesOffset + nameOffset, nameLength);
+        return new Product(code, name, Money.toBigDecimal(price));
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int index = 0; index < length; index++) {
+            bytes[index] = buffer.get(offset + index);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    // Compares the code of the record with the given one, like Arrays.compareUnsigned of the unpadded codes
+    private int compareCode(int productId, byte[] code) {
+        int recordOffset = recordOffset(productId);
+        for (int index = 0; index < codeLength; index++) {
+            int recordByte = Byte.toUnsignedInt(buffer.get(recordOffset + index));
+            int codeByte = index < code.length ? Byte.toUnsignedInt(code[index]) : 0;
+            if (recordByte != codeByte) {
+                return recordByte - codeByte;
+            }
+        }
+        return code.length > codeLength ? -1 : 0;
+    }
+
+    private int recordOffset(int productId) {
+        return HEADER_SIZE + productId * recordSize;
+    }
+}
@@ -0,0 +1,20 @@
+package my.project.catalog;
+
+import my.project.Product;
+
+public interface ProductCatalog {
+
+    // Every product of the catalog has a dense id (0 ... size - 1) and a unique code.
+    // Lookups throw IllegalArgumentException for unknown codes and ids.
+
+    int size();
+
+    int getProductId(String productCode);
+
+    Product getProduct(int productId);
+
+    default Product getProduct(String productCode) {
+        return getProduct(getProductId(productCode));
+    }
+
+}
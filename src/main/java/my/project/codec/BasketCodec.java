@@ -0,0 +1,166 @@
+package my.project.codec;
+
+import lombok.NonNull;
+import my.project.Basket;
+import my.project.Product;
+import my.project.catalog.ProductCatalog;
+import my.project.summary.BasketSummary;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class BasketCodec {
+
+    // Compact binary encoding of baskets and basket summaries, products are stored as ids of the catalog.
+    // Numbers are variable-length (7 bits per byte), signed ones are zigzag encoded, so a line usually takes 2-4 bytes.
+    // Values are read directly from the buffer (from its position), nothing is copied before decoding.
+    //
+    // Basket: type, version, number of runs, then every run of the same product: product id, quantity
+    // Basket summary: type, version, number of lines, then every line: product id, quantity, price,
+    //                 then discounted flags (a bit per line) and the discount of the whole basket
+
+    private static final byte BASKET = 1;
+    private static final byte BASKET_SUMMARY = 2;
+    // Every run (product id, quantity) and line (product id, quantity, price) takes at least a byte per number
+    private static final int MINIMUM_RUN_SIZE = 2;
+    private static final int MINIMUM_LINE_SIZE = 3;
+    // Versions of the two formats change separately - version 2 of the basket summary added quantities of the lines
+    private static final byte BASKET_VERSION = 1;
+    private static final byte BASKET_SUMMARY_VERSION = 2;
+
+    private final ProductCatalog productCatalog;
+
+    public BasketCodec(@NonNull ProductCatalog productCatalog) {
+        this.productCatalog = productCatalog;
+    }
+
+    public void writeBasket(@NonNull List<Product> products, @NonNull ByteBuffer target) {
+        writeBasket(Basket.of(products), target);
+    }
+
+    public void writeBasket(@NonNull Basket basket, @NonNull ByteBuffer target) {
+        target.put(BASKET).put(BASKET_VERSION);
+        writeVarLong(basket.size(), target);
+        for (int line = 0; line < basket.size(); line++) {
+            writeVarLong(productCatalog.getProductId(basket.getProduct(line).getCode()), target);
+            writeVarLong(basket.getQuantity(line), target);
+        }
+    }
+
+    public Basket readBasket(@NonNull ByteBuffer source) {
+        readHeader(BASKET, BASKET_VERSION, source);
+        int numberOfRuns = readCount(source, MINIMUM_RUN_SIZE);
+        Basket basket = new Basket();
+        for (int run = 0; run < numberOfRuns; run++) {
+            Product product = productCatalog.getProduct(readVarInt(source));
+            basket.add(product, readVarLong(source));
+        }
+        return basket;
+    }
+
+    public void writeBasketSummary(@NonNull BasketSummary basketSummary, @NonNull ByteBuffer target) {
+        target.put(BASKET_SUMMARY).put(BASKET_SUMMARY_VERSION);
+        writeVarLong(basketSummary.size(), target);
+        for (int line = 0; line < basketSummary.size(); line++) {
+            writeVarLong(productCatalog.getProductId(basketSummary.getProduct(line).getCode()), target);
+            writeVarLong(basketSummary.getQuantity(line), target);
+            writeVarLong(zigzag(basketSummary.getPrice(line)), target);
+        }
+        int flags = 0;
+        for (int line = 0; line < basketSummary.size(); line++) {
+            if (basketSummary.isDiscounted(line)) {
+                flags |= 1 << (line % Byte.SIZE);
+            }
+            if (line % Byte.SIZE == Byte.SIZE - 1 || line == basketSummary.size() - 1) {
+                target.put((byte) flags);
+                flags = 0;
+            }
+        }
+        writeVarLong(zigzag(basketSummary.getDiscount()), target);
+    }
+
+    // Prices of lines which are not discounted have to be the same as the prices in the catalog
+    public BasketSummary readBasketSummary(@NonNull ByteBuffer source) {
+        readHeader(BASKET_SUMMARY, BASKET_SUMMARY_VERSION, source);
+        int size = readCount(source, MINIMUM_LINE_SIZE);
+        Basket basket = new Basket();
+        long[] prices = new long[size];
+        for (int line = 0; line < size; line++) {
+            basket.add(productCatalog.getProduct(readVarInt(source)), readVarLong(source));
+            prices[line] = unzigzag(readVarLong(source));
+        }
+        if (basket.size() != size) {
+            throw new IllegalArgumentException("Consecutive lines of a basket summary cannot have the same product");
+        }
+        BasketSummary basketSummary = new BasketSummary(basket);
+        int flags = 0;
+        for (int line = 0; line < size; line++) {
+            if (line % Byte.SIZE == 0) {
+                flags = source.get();
+            }
+            if ((flags & (1 << (line % Byte.SIZE))) != 0) {
+                basketSummary.discount(line, prices[line]);
+            } else if (prices[line] != basketSummary.getPrice(line)) {
+                throw new IllegalArgumentException("Price of product " + basketSummary.getProduct(line).getCode() + " has changed");
+            }
+        }
+        basketSummary.setDiscount(unzigzag(readVarLong(source)));
+        return basketSummary;
+    }
+
+    private void readHeader(byte expectedType, byte expectedVersion, ByteBuffer source) {
+        byte type = source.get();
+        byte version = source.get();
+        if (type != expectedType) {
+            throw new IllegalArgumentException("Unexpected type of encoded data: " + type);
+        }
+        if (version != expectedVersion) {
+            throw new IllegalArgumentException("Unsupported version of encoded data: " + version);
+        }
+    }
+
+    private static void writeVarLong(long value, ByteBuffer target) {
+        while ((value & ~0x7FL) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    private static long readVarLong(ByteBuffer source) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte nextByte = source.get();
+            value |= (long) (nextByte & 0x7F) << shift;
+            if (nextByte >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length number");
+    }
+
+    // Number of runs or lines, checked against the remaining bytes before anything is allocated for them
+    private static int readCount(ByteBuffer source, int minimumSizeOfItem) {
+        int count = readVarInt(source);
+        if (count > source.remaining() / minimumSizeOfItem) {
+            throw new IllegalArgumentException("Number of items exceeds the encoded data: " + count);
+        }
+        return count;
+    }
+
+    private static int readVarInt(ByteBuffer source) {
+        long value = readVarLong(source);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Number out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
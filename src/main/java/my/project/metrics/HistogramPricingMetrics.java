@@ -0,0 +1,48 @@
+package my.project.metrics;
+
+import lombok.Getter;
+import lombok.NonNull;
+import my.project.PromotionalRule;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class HistogramPricingMetrics implements PricingMetrics {
+
+    // Keeps latency histograms and counters of every rule and of checkout totals in memory,
+    // it can be shared by all the checkouts and read while they are running
+
+    private final Map<PromotionalRule, RuleMetrics> ruleMetrics = new ConcurrentHashMap<>();
+
+    @Getter
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void recordRule(@NonNull PromotionalRule promotionalRule, long nanos, int examinedLines, long appliedDiscount) {
+        RuleMetrics metrics = ruleMetrics.get(promotionalRule);
+        if (metrics == null) {
+            metrics = ruleMetrics.computeIfAbsent(promotionalRule, rule -> new RuleMetrics());
+        }
+        metrics.record(nanos, examinedLines, appliedDiscount);
+    }
+
+    @Override
+    public void recordTotal(long nanos) {
+        totalLatency.record(nanos);
+    }
+
+    // Metrics of the rule, or null when it was never applied
+    public RuleMetrics getRuleMetrics(@NonNull PromotionalRule promotionalRule) {
+        return ruleMetrics.get(promotionalRule);
+    }
+
+    public Map<PromotionalRule, RuleMetrics> getRuleMetrics() {
+        return Collections.unmodifiableMap(ruleMetrics);
+    }
+}
@@ -0,0 +1,65 @@
+package my.project.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class LatencyHistogram {
+
+    // Histogram of latencies in nanoseconds with power of two buckets - the n-th bucket counts
+    // latencies from 2^(n-1) to 2^n - 1, so recording is a few atomic increments without any allocation.
+    // It can be recorded by many threads at once.
+
+    private static final int NUMBER_OF_BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public void record(long nanos) {
+        long latency = Math.max(nanos, 0);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(latency));
+        count.increment();
+        totalNanos.add(latency);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : getTotalNanos() / count;
+    }
+
+    // Upper bound of the bucket containing the given percentile (0 - 100) of the latencies
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        long[] counts = new long[NUMBER_OF_BUCKETS];
+        long count = 0;
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            counts[bucket] = buckets.get(bucket);
+            count += counts[bucket];
+        }
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank && counts[bucket] > 0) {
+                return bucket == NUMBER_OF_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram(count=" + getCount() + ", meanNanos=" + getMeanNanos()
+                + ", p50Nanos=" + getPercentileNanos(50) + ", p99Nanos=" + getPercentileNanos(99) + ")";
+    }
+}
@@ -0,0 +1,34 @@
+package my.project.metrics;
+
+import my.project.PromotionalRule;
+
+public interface PricingMetrics {
+
+    // Sink for measurements of the pricing hot path. Nothing is measured (not even the time is read)
+    // when the sink is not enabled, so the default NONE costs a single check per basket.
+
+    PricingMetrics NONE = new PricingMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordRule(PromotionalRule promotionalRule, long nanos, int examinedLines, long appliedDiscount) {
+        }
+
+        @Override
+        public void recordTotal(long nanos) {
+        }
+    };
+
+    boolean isEnabled();
+
+    // Called after every PromotionalRule.applyPromotion - its time, number of lines it could look at
+    // and how much it reduced the total price (in minor units)
+    void recordRule(PromotionalRule promotionalRule, long nanos, int examinedLines, long appliedDiscount);
+
+    // Called after every Checkout.total
+    void recordTotal(long nanos);
+
+}
@@ -0,0 +1,39 @@
+package my.project.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class RuleMetrics {
+
+    // Measurements of a single promotional rule, summed over all the baskets it was applied to
+
+    @Getter
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder examinedLines = new LongAdder();
+    private final LongAdder appliedDiscount = new LongAdder();
+
+    void record(long nanos, int examinedLines, long appliedDiscount) {
+        latency.record(nanos);
+        this.examinedLines.add(examinedLines);
+        this.appliedDiscount.add(appliedDiscount);
+    }
+
+    public long getNumberOfCalls() {
+        return latency.getCount();
+    }
+
+    public long getExaminedLines() {
+        return examinedLines.sum();
+    }
+
+    public long getAppliedDiscount() {
+        return appliedDiscount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RuleMetrics(latency=" + latency + ", examinedLines=" + getExaminedLines()
+                + ", appliedDiscount=" + getAppliedDiscount() + ")";
+    }
+}
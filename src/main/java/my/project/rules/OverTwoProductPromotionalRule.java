@@ -1,10 +1,12 @@
 package my.project.rules;
 
 import lombok.NonNull;
+import my.project.Money;
 import my.project.PromotionalRule;
 import my.project.summary.BasketSummary;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 import static java.math.BigDecimal.ZERO;
 
@@ -13,21 +15,28 @@ public class OverTwoProductPromotionalRule implements PromotionalRule {
     private static final int MIN_NUMBER_OF_PRODUCTS_TO_APPLY_PROMOTION = 2;
 
     private final String productCode;
-    private final BigDecimal newPrice;
+    private final Set<String> productCodes;
+    private final long newPrice;
 
     public OverTwoProductPromotionalRule(@NonNull String productCode, @NonNull BigDecimal newPrice) {
         if (newPrice.compareTo(ZERO) < 0) {
             throw new IllegalArgumentException("New price cannot be negative.");
         }
         this.productCode = productCode;
-        this.newPrice = newPrice;
+        this.productCodes = Set.of(productCode);
+        this.newPrice = Money.of(newPrice);
     }
 
     @Override
     public void applyPromotion(@NonNull BasketSummary basketSummary) {
-        long numberOfTravelCardHoldersInBasket = getNumberOfTravelCardHoldersInBasket(basketSummary);
-        if (numberOfTravelCardHoldersInBasket >= MIN_NUMBER_OF_PRODUCTS_TO_APPLY_PROMOTION) {
-            basketSummary.getItems().forEach(this::applyPromotion);
+        if (basketSummary.countQuantity(productCode) >= MIN_NUMBER_OF_PRODUCTS_TO_APPLY_PROMOTION) {
+            int codeIndex = basketSummary.indexOfCode(productCode);
+            for (int n = 0; n < basketSummary.countLinesOfCode(codeIndex); n++) {
+                int line = basketSummary.getLineOfCode(codeIndex, n);
+                if (newPrice < basketSummary.getPrice(line)) {
+                    basketSummary.discount(line, newPrice);
+                }
+            }
         }
     }
 
@@ -36,20 +45,14 @@ public class OverTwoProductPromotionalRule implements PromotionalRule {
         return 1;
     }
 
-    private long getNumberOfTravelCardHoldersInBasket(BasketSummary basketSummary) {
-        return basketSummary.getItems().stream()
-                .filter(this::isTravelCardHolder)
-                .count();
-    }
-
-    private void applyPromotion(BasketSummary.Item item) {
-        if (isTravelCardHolder(item) && newPrice.compareTo(item.getPrice()) < 0) {
-            item.discount(newPrice);
-        }
+    @Override
+    public Set<String> productCodes() {
+        return productCodes;
     }
 
-    private boolean isTravelCardHolder(BasketSummary.Item item) {
-        return productCode.equals(item.getProduct().getCode());
+    @Override
+    public long minimumQuantity() {
+        return MIN_NUMBER_OF_PRODUCTS_TO_APPLY_PROMOTION;
     }
 
 }
@@ -1,6 +1,7 @@
 package my.project.rules;
 
 import lombok.NonNull;
+import my.project.Money;
 import my.project.PromotionalRule;
 import my.project.summary.BasketSummary;
 
@@ -10,7 +11,7 @@ import static java.math.BigDecimal.ZERO;
 
 public class PriceOverThresholdPromotionalRule implements PromotionalRule {
 
-    private final BigDecimal threshold;
+    private final long threshold;
     private final int reductionInPercents;
 
     public PriceOverThresholdPromotionalRule(@NonNull BigDecimal threshold, int reductionInPercents) {
@@ -20,16 +21,16 @@ public class PriceOverThresholdPromotionalRule implements PromotionalRule {
         if (reductionInPercents <= 0) {
             throw new IllegalArgumentException("Reduction of price must be positive");
         }
-        this.threshold = threshold;
+        this.threshold = Money.of(threshold);
         this.reductionInPercents = reductionInPercents;
     }
 
     @Override
     public void applyPromotion(@NonNull BasketSummary basketSummary) {
-        BigDecimal totalPrice = basketSummary.totalPrice();
-        if (totalPrice.compareTo(threshold) > 0) {
-            BigDecimal discount = totalPrice.multiply(BigDecimal.valueOf(reductionInPercents / 100d));
-            basketSummary.setDiscount(basketSummary.getDiscount().add(discount));
+        long totalPrice = basketSummary.totalPrice();
+        if (totalPrice > threshold) {
+            long discount = Money.percentage(totalPrice, reductionInPercents);
+            basketSummary.setDiscount(basketSummary.getDiscount() + discount);
         }
     }
 
@@ -37,4 +38,9 @@ public class PriceOverThresholdPromotionalRule implements PromotionalRule {
     public int priority() {
         return 10;
     }
+
+    @Override
+    public long minimumTotalPrice() {
+        return threshold + 1;
+    }
 }
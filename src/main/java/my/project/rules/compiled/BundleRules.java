@@ -0,0 +1,144 @@
+package my.project.rules.compiled;
+
+import lombok.NonNull;
+import my.project.PromotionalRule;
+import my.project.summary.BasketSummary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+final class BundleRules implements PromotionalRule {
+
+    private static final int[] NO_BUNDLES = new int[0];
+
+    // All the "bundle" rules of a rule file: one unit of each of the codes of a bundle costs bundlePrices[bundle]
+    // together. A basket gets as many bundles as it has complete sets, the saving is the current price of the units
+    // used by the sets (taken in the order of the lines) minus the price of the bundles - bundles which would cost more
+    // are not applied. Bundles are applied in the order of the file and a unit is used by one bundle only.
+    // The codes of bundle are codes[bundleOffsets[bundle]] ... codes[bundleOffsets[bundle + 1] - 1].
+    // Bundles are found by their first code, so a basket is priced without looking at the bundles of other products.
+    // Every applied bundle adds its saving to the discount with its own promotionIds[bundle].
+
+    private final int[] promotionIds;
+    private final int[] bundleOffsets;
+    private final String[] codes;
+    private final long[] bundlePrices;
+    private final Map<String, int[]> bundlesOfFirstCodes = new HashMap<>();
+    private final Set<String> productCodes;
+    private final long minimumQuantity;
+
+    BundleRules(int[] promotionIds, int[] bundleOffsets, String[] codes, long[] bundlePrices) {
+        this.promotionIds = promotionIds;
+        this.bundleOffsets = bundleOffsets;
+        this.codes = codes;
+        this.bundlePrices = bundlePrices;
+        this.productCodes = new HashSet<>(Arrays.asList(codes));
+        long minimumQuantity = Long.MAX_VALUE;
+        for (int bundle = 0; bundle < bundlePrices.length; bundle++) {
+            minimumQuantity = Math.min(minimumQuantity, bundleOffsets[bundle + 1] - bundleOffsets[bundle]);
+            String firstCode = codes[bundleOffsets[bundle]];
+            int[] bundles = bundlesOfFirstCodes.getOrDefault(firstCode, new int[0]);
+            bundles = Arrays.copyOf(bundles, bundles.length + 1);
+            bundles[bundles.length - 1] = bundle;
+            bundlesOfFirstCodes.put(firstCode, bundles);
+        }
+        this.minimumQuantity = bundlePrices.length == 0 ? 0 : minimumQuantity;
+    }
+
+    @Override
+    public void applyPromotion(@NonNull BasketSummary basketSummary) {
+        int[] bundles = findBundles(basketSummary);
+        // Units used by the applied bundles by the index of their code, created only when a bundle is applied
+        long[] usedQuantities = null;
+        for (int bundle : bundles) {
+            long sets = Long.MAX_VALUE;
+            for (int code = bundleOffsets[bundle]; code < bundleOffsets[bundle + 1] && sets > 0; code++) {
+                int codeIndex = basketSummary.indexOfCode(codes[code]);
+                sets = codeIndex < 0 ? 0 : Math.min(sets, basketSummary.getQuantityOfCode(codeIndex) - usedQuantity(usedQuantities, codeIndex));
+            }
+            if (sets <= 0) {
+                continue;
+            }
+            long price = 0;
+            for (int code = bundleOffsets[bundle]; code < bundleOffsets[bundle + 1]; code++) {
+                int codeIndex = basketSummary.indexOfCode(codes[code]);
+                price = Math.addExact(price, priceOfUnits(basketSummary, codeIndex, usedQuantity(usedQuantities, codeIndex), sets));
+            }
+            long saving = price - Math.multiplyExact(sets, bundlePrices[bundle]);
+            if (saving <= 0) {
+                continue;
+            }
+            if (usedQuantities == null) {
+                usedQuantities = new long[basketSummary.getNumberOfCodes()];
+            }
+            for (int code = bundleOffsets[bundle]; code < bundleOffsets[bundle + 1]; code++) {
+                usedQuantities[basketSummary.indexOfCode(codes[code])] += sets;
+            }
+            basketSummary.setPromotionId(promotionIds[bundle]);
+            basketSummary.setDiscount(Math.addExact(basketSummary.getDiscount(), saving));
+        }
+    }
+
+    private static long usedQuantity(long[] usedQuantities, int codeIndex) {
+        return usedQuantities == null ? 0 : usedQuantities[codeIndex];
+    }
+
+    // Bundles whose first code is in the basket, in the order of the file
+    private int[] findBundles(BasketSummary basketSummary) {
+        int[] foundBundles = NO_BUNDLES;
+        for (int productIndex = 0; productIndex < basketSummary.getNumberOfDistinctProducts(); productIndex++) {
+            String productCode = basketSummary.getDistinctProduct(productIndex).getCode();
+            int[] bundles = bundlesOfFirstCodes.get(productCode);
+            // Products with the same code share the lines, their bundles are taken once
+            if (bundles != null
+                    && basketSummary.getProductIndex(basketSummary.getLineOfCode(basketSummary.indexOfCode(productCode), 0)) == productIndex) {
+                int numberOfFoundBundles = foundBundles.length;
+                foundBundles = Arrays.copyOf(foundBundles, numberOfFoundBundles + bundles.length);
+                System.arraycopy(bundles, 0, foundBundles, numberOfFoundBundles, bundles.length);
+            }
+        }
+        Arrays.sort(foundBundles);
+        return foundBundles;
+    }
+
+    // Current price of the given number of units of the code, skipping the first units which are already used
+    private static long priceOfUnits(BasketSummary basketSummary, int codeIndex, long skippedUnits, long units) {
+        long price = 0;
+        for (int n = 0; n < basketSummary.countLinesOfCode(codeIndex) && units > 0; n++) {
+            int line = basketSummary.getLineOfCode(codeIndex, n);
+            long quantity = basketSummary.getQuantity(line);
+            if (skippedUnits >= quantity) {
+                skippedUnits -= quantity;
+                continue;
+            }
+            long takenUnits = Math.min(quantity - skippedUnits, units);
+            price = Math.addExact(price, Math.multiplyExact(basketSummary.getPrice(line), takenUnits));
+            units -= takenUnits;
+            skippedUnits = 0;
+        }
+        return price;
+    }
+
+    @Override
+    public int priority() {
+        return 5;
+    }
+
+    @Override
+    public Set<String> productCodes() {
+        return productCodes;
+    }
+
+    @Override
+    public long minimumQuantity() {
+        return minimumQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return "BundleRules(" + bundlePrices.length + " rules)";
+    }
+}
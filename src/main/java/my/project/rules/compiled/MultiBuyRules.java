@@ -0,0 +1,91 @@
+package my.project.rules.compiled;
+
+import lombok.NonNull;
+import my.project.PromotionalRule;
+import my.project.summary.BasketSummary;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+final class MultiBuyRules implements PromotionalRule {
+
+    // All the "multibuy" rules of a rule file: when the basket has at least minimumQuantities[rule] units
+    // of productCodes[rule], every unit costs newPrices[rule] (unless it's already cheaper). The rules are found
+    // by the codes of the products in the basket, so a basket is priced without looking at the other rules.
+    // promotionIds[rule] is the id of the promotion of the rule, set on the basket summary before its discounts.
+
+    private final int[] promotionIds;
+    private final String[] productCodes;
+    private final long[] minimumQuantities;
+    private final long[] newPrices;
+    private final Map<String, int[]> rulesOfCodes = new HashMap<>();
+    private final long minimumQuantity;
+
+    MultiBuyRules(int[] promotionIds, String[] productCodes, long[] minimumQuantities, long[] newPrices) {
+        this.promotionIds = promotionIds;
+        this.productCodes = productCodes;
+        this.minimumQuantities = minimumQuantities;
+        this.newPrices = newPrices;
+        for (int rule = 0; rule < productCodes.length; rule++) {
+            int[] rules = rulesOfCodes.getOrDefault(productCodes[rule], new int[0]);
+            rules = Arrays.copyOf(rules, rules.length + 1);
+            rules[rules.length - 1] = rule;
+            rulesOfCodes.put(productCodes[rule], rules);
+        }
+        this.minimumQuantity = Arrays.stream(minimumQuantities).min().orElse(0);
+    }
+
+    @Override
+    public void applyPromotion(@NonNull BasketSummary basketSummary) {
+        for (int productIndex = 0; productIndex < basketSummary.getNumberOfDistinctProducts(); productIndex++) {
+            String productCode = basketSummary.getDistinctProduct(productIndex).getCode();
+            int[] rules = rulesOfCodes.get(productCode);
+            if (rules == null) {
+                continue;
+            }
+            int codeIndex = basketSummary.indexOfCode(productCode);
+            // Products with the same code (but e.g. another price) share the lines, they are priced once
+            if (basketSummary.getProductIndex(basketSummary.getLineOfCode(codeIndex, 0)) != productIndex) {
+                continue;
+            }
+            long quantity = basketSummary.countQuantity(productCode);
+            for (int rule : rules) {
+                if (quantity >= minimumQuantities[rule]) {
+                    basketSummary.setPromotionId(promotionIds[rule]);
+                    discountLines(basketSummary, codeIndex, newPrices[rule]);
+                }
+            }
+        }
+    }
+
+    private static void discountLines(BasketSummary basketSummary, int codeIndex, long newPrice) {
+        for (int n = 0; n < basketSummary.countLinesOfCode(codeIndex); n++) {
+            int line = basketSummary.getLineOfCode(codeIndex, n);
+            if (newPrice < basketSummary.getPrice(line)) {
+                basketSummary.discount(line, newPrice);
+            }
+        }
+    }
+
+    @Override
+    public int priority() {
+        return 1;
+    }
+
+    @Override
+    public Set<String> productCodes() {
+        return rulesOfCodes.keySet();
+    }
+
+    @Override
+    public long minimumQuantity() {
+        return minimumQuantity;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiBuyRules(" + productCodes.length + " rules)";
+    }
+}
@@ -0,0 +1,162 @@
+package my.project.rules.compiled;
+
+import lombok.NonNull;
+import my.project.Money;
+import my.project.PromotionalRule;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class RuleFileCompiler {
+
+    // Reads promotional rules from a text file, one rule per line (words separated with spaces):
+    //
+    // multibuy <code> <quantity> <price>     at least <quantity> units of <code> cost <price> each, e.g. "multibuy 001 2 8.50"
+    // threshold <amount> <percents>          total over <amount> is reduced by <percents>, e.g. "threshold 60 10"
+    // bundle <price> <code> <code>...        one unit of each of the codes costs <price> together, e.g. "bundle 50 002 003"
+    //
+    // Empty lines and lines starting with # are skipped.
+    //
+    // The rules are compiled into one evaluator for each kind of rule, which keeps the parameters of all the rules
+    // of that kind in arrays. A plan built from thousands of rules is then only a few rules for the factory,
+    // and pricing calls the same few applyPromotion implementations for every basket.
+    // Every rule keeps the number of its line as the id of its promotion, which is set on the basket summary
+    // before the rule changes it (see BasketSummary.setPromotionId), so an audit can tell the rules apart.
+
+    private static final String COMMENT = "#";
+    private static final String SEPARATOR = "\\s+";
+
+    public List<PromotionalRule> compile(@NonNull Path ruleFile) throws IOException {
+        return compile(Files.readAllLines(ruleFile, UTF_8));
+    }
+
+    public List<PromotionalRule> compile(@NonNull List<String> lines) {
+        List<Integer> multiBuyIds = new ArrayList<>();
+        List<String> multiBuyCodes = new ArrayList<>();
+        List<Long> multiBuyQuantities = new ArrayList<>();
+        List<Long> multiBuyPrices = new ArrayList<>();
+        List<Integer> thresholdIds = new ArrayList<>();
+        List<Long> thresholds = new ArrayList<>();
+        List<Integer> reductionsInPercents = new ArrayList<>();
+        List<Integer> bundleIds = new ArrayList<>();
+        List<Integer> bundleOffsets = new ArrayList<>(List.of(0));
+        List<String> bundleCodes = new ArrayList<>();
+        List<Long> bundlePrices = new ArrayList<>();
+        for (int index = 0; index < lines.size(); index++) {
+            String line = lines.get(index).trim();
+            if (line.isEmpty() || line.startsWith(COMMENT)) {
+                continue;
+            }
+            String[] words = line.split(SEPARATOR);
+            try {
+                switch (words[0]) {
+                    case "multibuy":
+                        checkNumberOfWords(words, 4);
+                        multiBuyIds.add(index + 1);
+                        multiBuyCodes.add(words[1]);
+                        multiBuyQuantities.add(parseQuantity(words[2]));
+                        multiBuyPrices.add(parseAmount(words[3]));
+                        break;
+                    case "threshold":
+                        checkNumberOfWords(words, 3);
+                        thresholdIds.add(index + 1);
+                        thresholds.add(parseAmount(words[1]));
+                        reductionsInPercents.add(parsePercents(words[2]));
+                        break;
+                    case "bundle":
+                        if (words.length < 4) {
+                            throw new IllegalArgumentException("Bundle needs a price and at least two codes");
+                        }
+                        bundleIds.add(index + 1);
+                        bundlePrices.add(parseAmount(words[1]));
+                        Set<String> codes = new HashSet<>();
+                        for (int word = 2; word < words.length; word++) {
+                            if (!codes.add(words[word])) {
+                                throw new IllegalArgumentException("Repeated code " + words[word]);
+                            }
+                            bundleCodes.add(words[word]);
+                        }
+                        bundleOffsets.add(bundleCodes.size());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown rule " + words[0]);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid rule in line " + (index + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        List<PromotionalRule> promotionalRules = new ArrayList<>(3);
+        if (!multiBuyCodes.isEmpty()) {
+            promotionalRules.add(new MultiBuyRules(toIntArray(multiBuyIds), multiBuyCodes.toArray(new String[0]),
+                    toLongArray(multiBuyQuantities), toLongArray(multiBuyPrices)));
+        }
+        if (!bundlePrices.isEmpty()) {
+            promotionalRules.add(new BundleRules(toIntArray(bundleIds), toIntArray(bundleOffsets),
+                    bundleCodes.toArray(new String[0]), toLongArray(bundlePrices)));
+        }
+        if (!thresholds.isEmpty()) {
+            promotionalRules.add(new ThresholdRules(toIntArray(thresholdIds), toLongArray(thresholds),
+                    toIntArray(reductionsInPercents)));
+        }
+        return promotionalRules;
+    }
+
+    private static void checkNumberOfWords(String[] words, int numberOfWords) {
+        if (words.length != numberOfWords) {
+            throw new IllegalArgumentException("Expected " + (numberOfWords - 1) + " parameters");
+        }
+    }
+
+    private static long parseAmount(String amount) {
+        long minorUnits;
+        try {
+            minorUnits = Money.of(new BigDecimal(amount));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed amount " + amount, e);
+        }
+        if (minorUnits < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative: " + amount);
+        }
+        return minorUnits;
+    }
+
+    private static long parseQuantity(String quantity) {
+        try {
+            long value = Long.parseLong(quantity);
+            if (value <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed quantity " + quantity, e);
+        }
+    }
+
+    private static int parsePercents(String percents) {
+        try {
+            int value = Integer.parseInt(percents);
+            if (value <= 0) {
+                throw new IllegalArgumentException("Reduction of price must be positive: " + percents);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed percents " + percents, e);
+        }
+    }
+
+    private static long[] toLongArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,55 @@
+package my.project.rules.compiled;
+
+import lombok.NonNull;
+import my.project.Money;
+import my.project.PromotionalRule;
+import my.project.summary.BasketSummary;
+
+import java.util.Arrays;
+
+final class ThresholdRules implements PromotionalRule {
+
+    // All the "threshold" rules of a rule file: when the total price is over thresholds[rule], it's reduced
+    // by reductionsInPercents[rule]. The rules are applied in the order of the file, each one to the total
+    // reduced by the previous ones - the same as PriceOverThresholdPromotionalRule for each of them.
+    // promotionIds[rule] is the id of the promotion of the rule, set on the basket summary before its discount.
+
+    private final int[] promotionIds;
+    private final long[] thresholds;
+    private final int[] reductionsInPercents;
+    private final long minimumTotalPrice;
+
+    ThresholdRules(int[] promotionIds, long[] thresholds, int[] reductionsInPercents) {
+        this.promotionIds = promotionIds;
+        this.thresholds = thresholds;
+        this.reductionsInPercents = reductionsInPercents;
+        this.minimumTotalPrice = thresholds.length == 0 ? 0 : Arrays.stream(thresholds).min().getAsLong() + 1;
+    }
+
+    @Override
+    public void applyPromotion(@NonNull BasketSummary basketSummary) {
+        for (int rule = 0; rule < thresholds.length; rule++) {
+            long totalPrice = basketSummary.totalPrice();
+            if (totalPrice > thresholds[rule]) {
+                long discount = Money.percentage(totalPrice, reductionsInPercents[rule]);
+                basketSummary.setPromotionId(promotionIds[rule]);
+                basketSummary.setDiscount(basketSummary.getDiscount() + discount);
+            }
+        }
+    }
+
+    @Override
+    public int priority() {
+        return 10;
+    }
+
+    @Override
+    public long minimumTotalPrice() {
+        return minimumTotalPrice;
+    }
+
+    @Override
+    public String toString() {
+        return "ThresholdRules(" + thresholds.length + " rules)";
+    }
+}
@@ -0,0 +1,71 @@
+package my.project.simulation;
+
+import lombok.NonNull;
+import my.project.Basket;
+import my.project.Product;
+import my.project.catalog.ProductCatalog;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class BasketCorpus {
+
+    // Historical baskets loaded once into a compact form - three arrays for all the baskets instead of objects per line:
+    // lines of the n-th basket are basketOffsets[n] ... basketOffsets[n + 1] - 1, every line is the id of a product
+    // in the catalog and its quantity. Products have to be the same as in the catalog.
+
+    private final ProductCatalog productCatalog;
+    private int[] basketOffsets;
+    private int[] productIds;
+    private long[] quantities;
+    private int size;
+
+    public BasketCorpus(@NonNull ProductCatalog productCatalog) {
+        this.productCatalog = productCatalog;
+        this.basketOffsets = new int[16];
+        this.productIds = new int[64];
+        this.quantities = new long[64];
+    }
+
+    public void add(@NonNull List<Product> products) {
+        add(Basket.of(products));
+    }
+
+    public void add(@NonNull Basket basket) {
+        int numberOfLines = basketOffsets[size];
+        if (size + 2 > basketOffsets.length) {
+            basketOffsets = Arrays.copyOf(basketOffsets, 2 * basketOffsets.length);
+        }
+        if (numberOfLines + basket.size() > productIds.length) {
+            int capacity = Math.max(2 * productIds.length, numberOfLines + basket.size());
+            productIds = Arrays.copyOf(productIds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        for (int line = 0; line < basket.size(); line++) {
+            Product product = basket.getProduct(line);
+            int productId = productCatalog.getProductId(product.getCode());
+            if (!productCatalog.getProduct(productId).equals(product)) {
+                throw new IllegalArgumentException("Product " + product.getCode() + " is different in the catalog");
+            }
+            productIds[numberOfLines + line] = productId;
+            quantities[numberOfLines + line] = basket.getQuantity(line);
+        }
+        basketOffsets[++size] = numberOfLines + basket.size();
+    }
+
+    // Number of baskets
+    public int size() {
+        return size;
+    }
+
+    // Replaces the lines of the target with the lines of the n-th basket
+    public void readBasket(int index, @NonNull Basket target) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Basket " + index + " of " + size);
+        }
+        target.clear();
+        for (int line = basketOffsets[index]; line < basketOffsets[index + 1]; line++) {
+            target.add(productCatalog.getProduct(productIds[line]), quantities[line]);
+        }
+    }
+}
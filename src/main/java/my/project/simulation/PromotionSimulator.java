@@ -0,0 +1,95 @@
+package my.project.simulation;
+
+import lombok.NonNull;
+import my.project.Basket;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import my.project.metrics.PricingMetrics;
+import my.project.summary.BasketSummary;
+import my.project.summary.BasketSummaryFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PromotionSimulator {
+
+    // Evaluates candidate promotion plans against historical baskets in a single pass over the corpus:
+    // every basket is read and indexed once, then it's priced with each plan in turn (the discounts of the previous
+    // plan are cleared, the lines are kept). Totals are the same as Checkout would give for each plan.
+
+    public List<SimulationResult> simulate(@NonNull BasketCorpus basketCorpus, @NonNull List<PromotionPlan> promotionPlans) {
+        int numberOfPlans = promotionPlans.size();
+        RuleCounter[] ruleCounters = new RuleCounter[numberOfPlans];
+        BasketSummaryFactory[] basketSummaryFactories = new BasketSummaryFactory[numberOfPlans];
+        for (int plan = 0; plan < numberOfPlans; plan++) {
+            ruleCounters[plan] = new RuleCounter(promotionPlans.get(plan));
+            basketSummaryFactories[plan] = new BasketSummaryFactory(ruleCounters[plan]);
+        }
+        long grossRevenue = 0;
+        long[] revenues = new long[numberOfPlans];
+        Basket basket = new Basket();
+        BasketSummary basketSummary = new BasketSummary(List.of());
+        for (int index = 0; index < basketCorpus.size(); index++) {
+            basketCorpus.readBasket(index, basket);
+            basketSummary.reset(basket);
+            grossRevenue += basketSummary.totalPrice();
+            for (int plan = 0; plan < numberOfPlans; plan++) {
+                basketSummary.clearDiscounts();
+                basketSummaryFactories[plan].applyPromotions(basketSummary, promotionPlans.get(plan));
+                revenues[plan] += Math.max(basketSummary.totalPrice(), 0);
+            }
+        }
+        List<SimulationResult> simulationResults = new ArrayList<>(numberOfPlans);
+        for (int plan = 0; plan < numberOfPlans; plan++) {
+            simulationResults.add(new SimulationResult(promotionPlans.get(plan), basketCorpus.size(), grossRevenue, revenues[plan],
+                    ruleCounters[plan].getResults(basketCorpus.size())));
+        }
+        return simulationResults;
+    }
+
+    // Counts the baskets where each rule of a plan lowered the total price
+    private static class RuleCounter implements PricingMetrics {
+        private final PromotionPlan promotionPlan;
+        private final Map<PromotionalRule, Integer> indexesOfRules = new HashMap<>();
+        private final long[] hits;
+        private final long[] discounts;
+
+        RuleCounter(PromotionPlan promotionPlan) {
+            this.promotionPlan = promotionPlan;
+            for (int index = 0; index < promotionPlan.size(); index++) {
+                indexesOfRules.put(promotionPlan.getPromotionalRule(index), index);
+            }
+            this.hits = new long[promotionPlan.size()];
+            this.discounts = new long[promotionPlan.size()];
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public void recordRule(PromotionalRule promotionalRule, long nanos, int examinedLines, long appliedDiscount) {
+            int index = indexesOfRules.get(promotionalRule);
+            if (appliedDiscount > 0) {
+                hits[index]++;
+            }
+            discounts[index] += appliedDiscount;
+        }
+
+        @Override
+        public void recordTotal(long nanos) {
+        }
+
+        List<RuleSimulationResult> getResults(int numberOfBaskets) {
+            List<RuleSimulationResult> ruleResults = new ArrayList<>(promotionPlan.size());
+            for (int index = 0; index < promotionPlan.size(); index++) {
+                double hitRate = numberOfBaskets == 0 ? 0 : (double) hits[index] / numberOfBaskets;
+                ruleResults.add(new RuleSimulationResult(promotionPlan.getPromotionalRule(index), hits[index], hitRate, discounts[index]));
+            }
+            return ruleResults;
+        }
+    }
+}
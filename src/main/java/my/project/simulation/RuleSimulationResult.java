@@ -0,0 +1,20 @@
+package my.project.simulation;
+
+import lombok.Value;
+import my.project.PromotionalRule;
+
+@Value
+public class RuleSimulationResult {
+
+    PromotionalRule promotionalRule;
+
+    // Number of baskets where the rule lowered the total price
+    long numberOfHits;
+
+    // Share of all the baskets where the rule lowered the total price (0 - 1)
+    double hitRate;
+
+    // Sum of the discounts given by the rule, in minor units
+    long discount;
+
+}
@@ -0,0 +1,30 @@
+package my.project.simulation;
+
+import lombok.Value;
+import my.project.PromotionPlan;
+
+import java.util.List;
+
+@Value
+public class SimulationResult {
+
+    // All the amounts are in minor units (see Money)
+
+    PromotionPlan promotionPlan;
+
+    long numberOfBaskets;
+
+    // Sum of the prices of the products before any discount
+    long grossRevenue;
+
+    // Sum of the totals the customers would pay (negative totals count as zero, like in Checkout)
+    long revenue;
+
+    // Results of the rules of the plan, in the order they are applied
+    List<RuleSimulationResult> ruleResults;
+
+    public long getDiscountSpend() {
+        return grossRevenue - revenue;
+    }
+
+}
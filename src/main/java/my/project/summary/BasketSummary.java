@@ -1,58 +1,451 @@
 package my.project.summary;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import my.project.Basket;
 import my.project.Product;
+import my.project.audit.AuditRecord;
 
-import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
-import static java.math.BigDecimal.ZERO;
-import static java.util.stream.Collectors.toList;
+import static java.util.Objects.requireNonNull;
 
-@Data
-@AllArgsConstructor
 public class BasketSummary {
 
+    private static final int[] NO_LINES = new int[0];
+
     // This class contains all information about the products and discounts
     // It's a mutable class, so promotional rules can modify it
+    // All prices and the discount are in minor units (see Money)
+
+    // Lines of the basket are stored in columns instead of a list of objects: the product of the n-th line
+    // is products[productIndexes[n]], its quantity is quantities[n], its current price (of a single unit) is prices[n]
+    // and discounted.get(n) tells if a rule changed it. Consecutive units of the same product are a single line.
+    // Every distinct product is stored once, so rules can match products instead of all the lines.
+    // The arrays can be bigger than the basket, so they can be reused for the next basket (see reset).
+    private Product[] products;
+    private int numberOfDistinctProducts;
+    private int[] productIndexes;
+    private long[] quantities;
+    private long[] prices;
+    private int size;
+    private long totalQuantity;
+
+    // Sum of the prices of all the lines (price x quantity), kept up to date by addLine and discount,
+    // so the total price doesn't need to go through the lines
+    private long subtotal;
+    private final BitSet discounted;
+    private final OpenAddressingIndex<Product> indexesOfProducts;
+
+    @Getter
+    private long discount;
 
-    private final List<Item> items;
-    private BigDecimal discount;
+    // Changes made by the rules while they are audited (see BasketSummaryFactory and PricingAudit): line (or
+    // AuditRecord.WHOLE_BASKET for the discount of the whole basket), id of the promotion which made it
+    // and the amount it took off the price.
+    // The arrays are kept between baskets, so recording doesn't allocate once they are big enough.
+    private boolean recordingChanges;
+    private int promotionId = AuditRecord.NO_PROMOTION_ID;
+    private int numberOfChanges;
+    private int[] changedLines = new int[0];
+    private int[] changePromotionIds = new int[0];
+    private long[] changeAmounts = new long[0];
 
-    BasketSummary(@NonNull List<Product> products) {
-        this.items = products.stream().map(Item::new).collect(toList());
-        this.discount = ZERO;
+    // Lines grouped by product code, built on first use - lines with the n-th code are
+    // linesByCode[codeOffsets[n]] ... linesByCode[codeOffsets[n + 1] - 1], their total quantity is quantitiesOfCodes[n].
+    // The codes are counted once for all the rules, in primitive arrays (no boxed counts).
+    // The index and the arrays are kept between resets and reused when they are big enough.
+    private boolean linesIndexedByCode;
+    private final OpenAddressingIndex<String> indexesOfCodes;
+    private int[] codeIndexesOfProducts;
+    private int[] codeOffsets;
+    private int[] nextPositions;
+    private int[] linesByCode;
+    private long[] quantitiesOfCodes;
+
+    public BasketSummary(@NonNull List<Product> products) {
+        this(products.size());
+        reset(products);
     }
 
-    public BigDecimal totalPrice() {
-        return items.stream()
-                .map(Item::getPrice)
-                .reduce(BigDecimal::add)
-                .map(total -> total.subtract(discount))
-                .orElse(ZERO);
+    public BasketSummary(@NonNull Basket basket) {
+        this(basket.size());
+        reset(basket);
     }
 
-    @Data
-    @AllArgsConstructor
-    public static class Item {
-        private final Product product;
-        private boolean discounted;
-        private BigDecimal price;
+    private BasketSummary(int capacity) {
+        this.products = new Product[0];
+        this.productIndexes = new int[capacity];
+        this.quantities = new long[capacity];
+        this.prices = new long[capacity];
+        this.discounted = new BitSet(capacity);
+        this.indexesOfProducts = new OpenAddressingIndex<>();
+        this.indexesOfCodes = new OpenAddressingIndex<>();
+        this.codeIndexesOfProducts = new int[0];
+        this.codeOffsets = new int[1];
+        this.nextPositions = new int[0];
+        this.linesByCode = new int[0];
+        this.quantitiesOfCodes = new long[0];
+    }
+
+    // Replaces all the lines with the given products and clears the discounts, the arrays are reused when they are big enough
+    public void reset(@NonNull List<Product> products) {
+        clear(products.size());
+        for (Product product : products) {
+            addLine(requireNonNull(product, "product is marked non-null but is null"), 1);
+        }
+    }
+
+    public void reset(@NonNull Basket basket) {
+        clear(basket.size());
+        for (int line = 0; line < basket.size(); line++) {
+            addLine(basket.getProduct(line), basket.getQuantity(line));
+        }
+    }
+
+    // Restores the prices of the products and removes the discount - the same as reset with the same products,
+    // but the lines and their index of codes are kept
+    public void clearDiscounts() {
+        for (int line = discounted.nextSetBit(0); line >= 0; line = discounted.nextSetBit(line + 1)) {
+            long price = getProduct(line).getPriceInMinorUnits();
+            subtotal = Math.addExact(subtotal, Math.multiplyExact(price - prices[line], quantities[line]));
+            prices[line] = price;
+        }
+        discounted.clear();
+        discount = 0;
+    }
 
-        public Item(@NonNull Product product) {
-            this.product = product;
-            this.discounted = false;
-            this.price = product.getPrice();
+    private void clear(int capacity) {
+        if (capacity > productIndexes.length) {
+            productIndexes = new int[capacity];
+            quantities = new long[capacity];
+            prices = new long[capacity];
         }
+        Arrays.fill(products, 0, numberOfDistinctProducts, null);
+        numberOfDistinctProducts = 0;
+        size = 0;
+        totalQuantity = 0;
+        subtotal = 0;
+        discounted.clear();
+        indexesOfProducts.clear();
+        linesIndexedByCode = false;
+        discount = 0;
+        stopRecordingChanges();
+    }
+
+    // Amounts and quantities are checked for overflow before anything is changed
+    private void addLine(Product product, long quantity) {
+        long newSubtotal = Math.addExact(subtotal, Math.multiplyExact(product.getPriceInMinorUnits(), quantity));
+        long newTotalQuantity = Math.addExact(totalQuantity, quantity);
+        int productIndex = indexesOfProducts.add(product);
+        if (productIndex == numberOfDistinctProducts) {
+            addDistinctProduct(product);
+        }
+        totalQuantity = newTotalQuantity;
+        subtotal = newSubtotal;
+        if (size > 0 && productIndexes[size - 1] == productIndex) {
+            quantities[size - 1] = Math.addExact(quantities[size - 1], quantity);
+            return;
+        }
+        productIndexes[size] = productIndex;
+        quantities[size] = quantity;
+        prices[size] = product.getPriceInMinorUnits();
+        size++;
+    }
+
+    private void addDistinctProduct(Product product) {
+        if (numberOfDistinctProducts == products.length) {
+            products = Arrays.copyOf(products, Math.max(2 * products.length, 8));
+        }
+        products[numberOfDistinctProducts++] = product;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Quantity of all the products
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public int getNumberOfDistinctProducts() {
+        return numberOfDistinctProducts;
+    }
+
+    public Product getDistinctProduct(int productIndex) {
+        return products[productIndex];
+    }
 
-        public void discount(@NonNull BigDecimal newPrice) {
-            if (newPrice.compareTo(ZERO) < 0) {
-                throw new IllegalArgumentException("New price cannot be negative");
+    public int getProductIndex(int line) {
+        return productIndexes[line];
+    }
+
+    public Product getProduct(int line) {
+        return products[productIndexes[line]];
+    }
+
+    public int countLines(@NonNull String productCode) {
+        int codeIndex = indexOfCode(productCode);
+        return codeIndex < 0 ? 0 : countLinesOfCode(codeIndex);
+    }
+
+    // Total quantity of the products with the given code
+    public long countQuantity(@NonNull String productCode) {
+        int codeIndex = indexOfCode(productCode);
+        return codeIndex < 0 ? 0 : quantitiesOfCodes[codeIndex];
+    }
+
+    // Copy of the lines with the given code, see getLineOfCode for reading them without a copy
+    public int[] getLines(@NonNull String productCode) {
+        int codeIndex = indexOfCode(productCode);
+        return codeIndex < 0 ? NO_LINES : Arrays.copyOfRange(linesByCode, codeOffsets[codeIndex], codeOffsets[codeIndex + 1]);
+    }
+
+    // Index of the product code for countLinesOfCode and getLineOfCode, or -1 when there are no lines with the code
+    public int indexOfCode(@NonNull String productCode) {
+        if (!linesIndexedByCode) {
+            indexLinesByCode();
+        }
+        return indexesOfCodes.indexOf(productCode);
+    }
+
+    // Number of distinct product codes in the basket, codes have indexes 0 ... getNumberOfCodes() - 1
+    public int getNumberOfCodes() {
+        if (!linesIndexedByCode) {
+            indexLinesByCode();
+        }
+        return indexesOfCodes.size();
+    }
+
+    public String getCode(int codeIndex) {
+        return indexesOfCodes.get(codeIndex);
+    }
+
+    public long getQuantityOfCode(int codeIndex) {
+        return quantitiesOfCodes[codeIndex];
+    }
+
+    public int countLinesOfCode(int codeIndex) {
+        return codeOffsets[codeIndex + 1] - codeOffsets[codeIndex];
+    }
+
+    // The n-th line with the code of the given index
+    public int getLineOfCode(int codeIndex, int n) {
+        return linesByCode[codeOffsets[codeIndex] + n];
+    }
+
+    public long getQuantity(int line) {
+        return quantities[line];
+    }
+
+    // Price of a single unit
+    public long getPrice(int line) {
+        return prices[line];
+    }
+
+    public boolean isDiscounted(int line) {
+        return discounted.get(line);
+    }
+
+    public void discount(int line, long newPrice) {
+        if (newPrice < 0) {
+            throw new IllegalArgumentException("New price cannot be negative");
+        }
+        long change = Math.multiplyExact(newPrice - prices[line], quantities[line]);
+        subtotal = Math.addExact(subtotal, change);
+        discounted.set(line);
+        prices[line] = newPrice;
+        if (recordingChanges) {
+            recordChange(line, -change);
+        }
+    }
+
+    public void setDiscount(long discount) {
+        if (recordingChanges) {
+            recordChange(AuditRecord.WHOLE_BASKET, discount - this.discount);
+        }
+        this.discount = discount;
+    }
+
+    // Rules made of many promotions (e.g. compiled from a rule file) tell which of them makes the following changes,
+    // so an audit can explain the discounts by promotion
+    public void setPromotionId(int promotionId) {
+        this.promotionId = promotionId;
+    }
+
+    // Starts a new record of changes, used by BasketSummaryFactory around every audited rule
+    void startRecordingChanges() {
+        recordingChanges = true;
+        promotionId = AuditRecord.NO_PROMOTION_ID;
+        numberOfChanges = 0;
+    }
+
+    void stopRecordingChanges() {
+        recordingChanges = false;
+        promotionId = AuditRecord.NO_PROMOTION_ID;
+        numberOfChanges = 0;
+    }
+
+    int getNumberOfChanges() {
+        return numberOfChanges;
+    }
+
+    // Line of the n-th change, or AuditRecord.WHOLE_BASKET
+    int getChangedLine(int n) {
+        return changedLines[n];
+    }
+
+    int getChangePromotionId(int n) {
+        return changePromotionIds[n];
+    }
+
+    // Amount the n-th change took off the price
+    long getChangeAmount(int n) {
+        return changeAmounts[n];
+    }
+
+    private void recordChange(int line, long amount) {
+        if (numberOfChanges == changedLines.length) {
+            int capacity = Math.max(2 * numberOfChanges, 8);
+            changedLines = Arrays.copyOf(changedLines, capacity);
+            changePromotionIds = Arrays.copyOf(changePromotionIds, capacity);
+            changeAmounts = Arrays.copyOf(changeAmounts, capacity);
+        }
+        changedLines[numberOfChanges] = line;
+        changePromotionIds[numberOfChanges] = promotionId;
+        changeAmounts[numberOfChanges] = amount;
+        numberOfChanges++;
+    }
+
+    public long totalPrice() {
+        return subtotal - discount;
+    }
+
+    public List<Item> getItems() {
+        return new AbstractList<>() {
+            @Override
+            public Item get(int line) {
+                if (line < 0 || line >= size) {
+                    throw new IndexOutOfBoundsException("Line " + line + " of " + size);
+                }
+                return new Item(BasketSummary.this, line);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BasketSummary)) {
+            return false;
+        }
+        BasketSummary otherBasketSummary = (BasketSummary) other;
+        if (size != otherBasketSummary.size || discount != otherBasketSummary.discount) {
+            return false;
+        }
+        for (int line = 0; line < size; line++) {
+            if (prices[line] != otherBasketSummary.prices[line]
+                    || quantities[line] != otherBasketSummary.quantities[line]
+                    || isDiscounted(line) != otherBasketSummary.isDiscounted(line)
+                    || !getProduct(line).equals(otherBasketSummary.getProduct(line))) {
+                return false;
             }
-            this.discounted = true;
-            this.price = newPrice;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = Long.hashCode(discount);
+        for (int line = 0; line < size; line++) {
+            hashCode = 31 * hashCode + getProduct(line).hashCode();
+            hashCode = 31 * hashCode + Long.hashCode(quantities[line]);
+            hashCode = 31 * hashCode + Long.hashCode(prices[line]);
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "BasketSummary(items=" + getItems() + ", discount=" + discount + ")";
+    }
+
+    private void indexLinesByCode() {
+        indexesOfCodes.clear();
+        if (codeIndexesOfProducts.length < numberOfDistinctProducts) {
+            codeIndexesOfProducts = new int[products.length];
+        }
+        for (int productIndex = 0; productIndex < numberOfDistinctProducts; productIndex++) {
+            codeIndexesOfProducts[productIndex] = indexesOfCodes.add(products[productIndex].getCode());
+        }
+        int numberOfCodes = indexesOfCodes.size();
+        if (nextPositions.length < numberOfCodes) {
+            codeOffsets = new int[codeIndexesOfProducts.length + 1];
+            nextPositions = new int[codeIndexesOfProducts.length];
+            quantitiesOfCodes = new long[codeIndexesOfProducts.length];
+        }
+        if (linesByCode.length < size) {
+            linesByCode = new int[productIndexes.length];
+        }
+        Arrays.fill(codeOffsets, 0, numberOfCodes + 1, 0);
+        Arrays.fill(quantitiesOfCodes, 0, numberOfCodes, 0);
+        for (int line = 0; line < size; line++) {
+            codeOffsets[codeIndexesOfProducts[productIndexes[line]] + 1]++;
+        }
+        for (int codeIndex = 0; codeIndex < numberOfCodes; codeIndex++) {
+            codeOffsets[codeIndex + 1] += codeOffsets[codeIndex];
+        }
+        System.arraycopy(codeOffsets, 0, nextPositions, 0, numberOfCodes);
+        for (int line = 0; line < size; line++) {
+            int codeIndex = codeIndexesOfProducts[productIndexes[line]];
+            linesByCode[nextPositions[codeIndex]++] = line;
+            quantitiesOfCodes[codeIndex] += quantities[line];
+        }
+        linesIndexedByCode = true;
+    }
+
+    // View of a single line of the basket, changes are written directly to the basket summary
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Item {
+        private final BasketSummary basketSummary;
+        private final int line;
+
+        public Product getProduct() {
+            return basketSummary.getProduct(line);
+        }
+
+        public long getQuantity() {
+            return basketSummary.getQuantity(line);
+        }
+
+        public boolean isDiscounted() {
+            return basketSummary.isDiscounted(line);
+        }
+
+        public long getPrice() {
+            return basketSummary.getPrice(line);
+        }
+
+        public void discount(long newPrice) {
+            basketSummary.discount(line, newPrice);
+        }
+
+        @Override
+        public String toString() {
+            return "BasketSummary.Item(product=" + getProduct() + ", quantity=" + getQuantity() + ", discounted=" + isDiscounted() + ", price=" + getPrice() + ")";
         }
     }
 }
@@ -1,21 +1,163 @@
 package my.project.summary;
 
 import lombok.NonNull;
+import my.project.Basket;
 import my.project.Product;
+import my.project.PromotionPlan;
 import my.project.PromotionalRule;
+import my.project.audit.AuditRecord;
+import my.project.audit.PricingAudit;
+import my.project.metrics.PricingMetrics;
 
 import java.util.List;
-
-import static java.util.Comparator.comparingInt;
+import java.util.Set;
 
 public class BasketSummaryFactory {
 
+    private final PricingMetrics pricingMetrics;
+    private final PricingAudit pricingAudit;
+
+    public BasketSummaryFactory() {
+        this(PricingMetrics.NONE, PricingAudit.NONE);
+    }
+
+    // Every applied rule is measured and recorded to the given metrics
+    public BasketSummaryFactory(@NonNull PricingMetrics pricingMetrics) {
+        this(pricingMetrics, PricingAudit.NONE);
+    }
+
+    // Discounts given by every applied rule are recorded to the given audit as well
+    public BasketSummaryFactory(@NonNull PricingMetrics pricingMetrics, @NonNull PricingAudit pricingAudit) {
+        this.pricingMetrics = pricingMetrics;
+        this.pricingAudit = pricingAudit;
+    }
+
     public BasketSummary createBasketSummary(@NonNull List<Product> products, @NonNull List<PromotionalRule> promotionalRules) {
+        return createBasketSummary(products, PromotionPlan.compile(promotionalRules));
+    }
+
+    public BasketSummary createBasketSummary(@NonNull List<Product> products, @NonNull PromotionPlan promotionPlan) {
         BasketSummary basketSummary = new BasketSummary(products);
-        promotionalRules.stream()
-                .sorted(comparingInt(PromotionalRule::priority))
-                .forEach(promotionalRule -> promotionalRule.applyPromotion(basketSummary));
+        applyPromotions(basketSummary, promotionPlan);
+        return basketSummary;
+    }
+
+    public BasketSummary createBasketSummary(@NonNull Basket basket, @NonNull PromotionPlan promotionPlan) {
+        BasketSummary basketSummary = new BasketSummary(basket);
+        applyPromotions(basketSummary, promotionPlan);
+        return basketSummary;
+    }
+
+    // The basket summary of the context is reused - it's valid only until the context is used again
+    public BasketSummary createBasketSummary(@NonNull Basket basket, @NonNull PromotionPlan promotionPlan,
+                                             @NonNull PricingContext pricingContext) {
+        BasketSummary basketSummary = pricingContext.getBasketSummary();
+        basketSummary.reset(basket);
+        applyPromotions(basketSummary, promotionPlan);
         return basketSummary;
     }
 
+    // Applies the rules to a basket summary which was created (or reset) by the caller, so it can be reused
+    public void applyPromotions(@NonNull BasketSummary basketSummary, @NonNull PromotionPlan promotionPlan) {
+        boolean measured = pricingMetrics.isEnabled();
+        boolean audited = pricingAudit.isEnabled();
+        long basketId = audited ? pricingAudit.startBasket() : 0;
+        for (int index = 0; index < promotionPlan.size(); index++) {
+            if (canApply(promotionPlan, index, basketSummary)) {
+                if (audited) {
+                    basketSummary.startRecordingChanges();
+                }
+                if (measured) {
+                    applyMeasuredPromotion(basketSummary, promotionPlan.getPromotionalRule(index), promotionPlan.getProductCodes(index));
+                } else {
+                    promotionPlan.getPromotionalRule(index).applyPromotion(basketSummary);
+                }
+                if (audited) {
+                    recordChanges(basketId, promotionPlan, index, basketSummary);
+                }
+            }
+        }
+        if (audited) {
+            basketSummary.stopRecordingChanges();
+        }
+    }
+
+    // Records the changes the rule made to the basket summary, the lines it didn't change are not looked at
+    private void recordChanges(long basketId, PromotionPlan promotionPlan, int index, BasketSummary basketSummary) {
+        for (int n = 0; n < basketSummary.getNumberOfChanges(); n++) {
+            int line = basketSummary.getChangedLine(n);
+            long amount = basketSummary.getChangeAmount(n);
+            if (amount != 0) {
+                pricingAudit.record(basketId, promotionPlan, index, basketSummary.getChangePromotionId(n), line,
+                        line == AuditRecord.WHOLE_BASKET ? null : basketSummary.getProduct(line), amount);
+            }
+        }
+    }
+
+    private void applyMeasuredPromotion(BasketSummary basketSummary, PromotionalRule promotionalRule, Set<String> productCodes) {
+        long totalPriceBefore = basketSummary.totalPrice();
+        long start = System.nanoTime();
+        promotionalRule.applyPromotion(basketSummary);
+        long nanos = System.nanoTime() - start;
+        pricingMetrics.recordRule(promotionalRule, nanos, countExaminedLines(productCodes, basketSummary),
+                totalPriceBefore - basketSummary.totalPrice());
+    }
+
+    // Rules working on some products can look only at their lines, the other ones at the whole basket
+    private int countExaminedLines(Set<String> productCodes, BasketSummary basketSummary) {
+        if (productCodes.isEmpty()) {
+            return basketSummary.size();
+        }
+        int examinedLines = 0;
+        if (productCodes.size() > basketSummary.getNumberOfCodes()) {
+            for (int codeIndex = 0; codeIndex < basketSummary.getNumberOfCodes(); codeIndex++) {
+                if (productCodes.contains(basketSummary.getCode(codeIndex))) {
+                    examinedLines += basketSummary.countLinesOfCode(codeIndex);
+                }
+            }
+        } else {
+            for (String productCode : productCodes) {
+                examinedLines += basketSummary.countLines(productCode);
+            }
+        }
+        return examinedLines;
+    }
+
+    // Checks the requirements of the rule against the aggregates of the basket, without looking at its lines
+    private boolean canApply(PromotionPlan promotionPlan, int index, BasketSummary basketSummary) {
+        Set<String> productCodes = promotionPlan.getProductCodes(index);
+        long quantity;
+        if (productCodes.isEmpty()) {
+            quantity = basketSummary.getTotalQuantity();
+        } else {
+            quantity = countQuantity(productCodes, basketSummary);
+            if (quantity == 0) {
+                return false;
+            }
+        }
+        if (quantity < promotionPlan.getMinimumQuantity(index)) {
+            return false;
+        }
+        long minimumTotalPrice = promotionPlan.getMinimumTotalPrice(index);
+        return minimumTotalPrice <= 0 || basketSummary.totalPrice() >= minimumTotalPrice;
+    }
+
+    // Rules with more codes than the basket (e.g. compiled from a rule file) are checked by the codes of the basket,
+    // so the check doesn't depend on the number of their promotions
+    private static long countQuantity(Set<String> productCodes, BasketSummary basketSummary) {
+        long quantity = 0;
+        if (productCodes.size() > basketSummary.getNumberOfCodes()) {
+            for (int codeIndex = 0; codeIndex < basketSummary.getNumberOfCodes(); codeIndex++) {
+                if (productCodes.contains(basketSummary.getCode(codeIndex))) {
+                    quantity += basketSummary.getQuantityOfCode(codeIndex);
+                }
+            }
+        } else {
+            for (String productCode : productCodes) {
+                quantity += basketSummary.countQuantity(productCode);
+            }
+        }
+        return quantity;
+    }
+
 }
@@ -0,0 +1,96 @@
+package my.project.summary;
+
+import java.util.Arrays;
+
+final class OpenAddressingIndex<K> {
+
+    // Gives keys dense indexes 0, 1, 2... in the order they are added, so anything about a key (e.g. the quantity
+    // of a product code) can be kept in a primitive array instead of a map. It's a hash table with linear probing:
+    // slots hold index + 1 (0 is an empty slot), the keys and their hashes are stored by index.
+    // Lookups don't allocate or box, and clear() keeps the arrays for the next basket.
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private int[] slots = new int[MINIMUM_CAPACITY];
+    private Object[] keys = new Object[MINIMUM_CAPACITY / 2];
+    private int[] hashes = new int[MINIMUM_CAPACITY / 2];
+    private int size;
+
+    // Index of the key, or -1 when it wasn't added
+    int indexOf(K key) {
+        int hash = hash(key);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    // Index of the key, the key is added with the next index when it wasn't added before
+    int add(K key) {
+        int hash = hash(key);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (hashes[index] == hash && keys[index].equals(key)) {
+                return index;
+            }
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size);
+            hashes = Arrays.copyOf(hashes, 2 * size);
+        }
+        keys[size] = key;
+        hashes[size] = hash;
+        slots[slot] = ++size;
+        // At most half of the slots are used, so probes stay short
+        if (2 * size > slots.length) {
+            rehash(2 * slots.length);
+        }
+        return size - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    K get(int index) {
+        return (K) keys[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Empties only the slots of the added keys, so after a big basket clearing a small one doesn't go through all the slots
+    void clear() {
+        int mask = slots.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (slots[slot] != index + 1) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = 0;
+        }
+        Arrays.fill(keys, 0, size, null);
+        size = 0;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,127 @@
+package my.project.summary;
+
+import lombok.NonNull;
+import my.project.Basket;
+import my.project.Product;
+import my.project.PromotionPlan;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Comparator.comparing;
+
+public class PricingCache {
+
+    // Remembers total prices of baskets, so identical baskets (meal deals, kits, repeated orders) are priced once.
+    // The key is the content of the basket - distinct products sorted by code with their quantities - and the version
+    // of the promotion plan. A new plan has a new version, so totals of the old plan are never used again and they are
+    // evicted as the least recently used ones. Rules have to give the same total for any order of the products
+    // (as all the rules in my.project.rules do). It can be shared by many threads.
+
+    private static final Comparator<Product> PRODUCT_ORDER = comparing(Product::getCode)
+            .thenComparingLong(Product::getPriceInMinorUnits)
+            .thenComparing(Product::getName);
+
+    private final BasketSummaryFactory basketSummaryFactory;
+    private final Map<BasketKey, Long> totalPrices;
+    private long hits;
+    private long misses;
+
+    public PricingCache(@NonNull BasketSummaryFactory basketSummaryFactory, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        this.basketSummaryFactory = basketSummaryFactory;
+        this.totalPrices = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BasketKey, Long> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    // Total price in minor units after applying the rules, the same as createBasketSummary(...).totalPrice()
+    public long totalPrice(@NonNull Basket basket, @NonNull PromotionPlan promotionPlan) {
+        BasketKey basketKey = BasketKey.of(basket, promotionPlan);
+        synchronized (this) {
+            Long totalPrice = totalPrices.get(basketKey);
+            if (totalPrice != null) {
+                hits++;
+                return totalPrice;
+            }
+            misses++;
+        }
+        // Priced without the lock, the same basket may be priced twice by concurrent threads
+        long totalPrice = basketSummaryFactory.createBasketSummary(basket, promotionPlan).totalPrice();
+        synchronized (this) {
+            totalPrices.put(basketKey, totalPrice);
+        }
+        return totalPrice;
+    }
+
+    public synchronized void invalidate() {
+        totalPrices.clear();
+    }
+
+    public synchronized int size() {
+        return totalPrices.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static final class BasketKey {
+        private final long planVersion;
+        private final Product[] products;
+        private final long[] quantities;
+        private final int hashCode;
+
+        private BasketKey(long planVersion, Product[] products, long[] quantities) {
+            this.planVersion = planVersion;
+            this.products = products;
+            this.quantities = quantities;
+            this.hashCode = 31 * (31 * Long.hashCode(planVersion) + Arrays.hashCode(products)) + Arrays.hashCode(quantities);
+        }
+
+        static BasketKey of(Basket basket, PromotionPlan promotionPlan) {
+            Map<Product, Long> quantitiesOfProducts = new HashMap<>();
+            for (int line = 0; line < basket.size(); line++) {
+                quantitiesOfProducts.merge(basket.getProduct(line), basket.getQuantity(line), Long::sum);
+            }
+            Product[] products = quantitiesOfProducts.keySet().toArray(new Product[0]);
+            Arrays.sort(products, PRODUCT_ORDER);
+            long[] quantities = new long[products.length];
+            for (int index = 0; index < products.length; index++) {
+                quantities[index] = quantitiesOfProducts.get(products[index]);
+            }
+            return new BasketKey(promotionPlan.getVersion(), products, quantities);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BasketKey)) {
+                return false;
+            }
+            BasketKey otherBasketKey = (BasketKey) other;
+            return planVersion == otherBasketKey.planVersion
+                    && Arrays.equals(quantities, otherBasketKey.quantities)
+                    && Arrays.equals(products, otherBasketKey.products);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package my.project.summary;
+
+import java.util.List;
+
+public class PricingContext {
+
+    // Scratch state for pricing baskets one after another - the basket summary (with its columns and index of codes)
+    // is reset and reused, so pricing a basket of a similar size allocates close to nothing.
+    // It's not thread-safe, every thread (or checkout) needs its own context.
+
+    private final BasketSummary basketSummary = new BasketSummary(List.of());
+
+    BasketSummary getBasketSummary() {
+        return basketSummary;
+    }
+}
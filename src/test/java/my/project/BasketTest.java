@@ -0,0 +1,95 @@
+package my.project;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BasketTest {
+
+    private final Product product1 = new Product("1", "product 1", BigDecimal.valueOf(1));
+    private final Product product2 = new Product("2", "product 2", BigDecimal.valueOf(2));
+
+    @Test
+    public void shouldMergeConsecutiveUnitsOfTheSameProduct() {
+        // given
+        Basket basket = new Basket();
+
+        // when
+        basket.add(product1, 2);
+        basket.add(product1, 3);
+        basket.add(product2, 1);
+        basket.add(product1, 1);
+
+        // then
+        assertThat(basket.size()).isEqualTo(3);
+        assertThat(basket.getProduct(0)).isEqualTo(product1);
+        assertThat(basket.getQuantity(0)).isEqualTo(5);
+        assertThat(basket.getProduct(1)).isEqualTo(product2);
+        assertThat(basket.getQuantity(2)).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldCreateBasketFromProducts() {
+        // given
+        Basket basket = new Basket();
+        basket.add(product1, 2);
+        basket.add(product2, 1);
+
+        // when & then
+        assertThat(Basket.of(List.of(product1, product1, product2))).isEqualTo(basket);
+        assertThat(Basket.of(List.of(product1, product2))).isNotEqualTo(basket);
+    }
+
+    @Test
+    public void shouldGrowWithNumberOfLines() {
+        // given
+        Basket basket = new Basket();
+
+        // when
+        for (int line = 0; line < 100; line++) {
+            basket.add(line % 2 == 0 ? product1 : product2, line + 1);
+        }
+
+        // then
+        assertThat(basket.size()).isEqualTo(100);
+        assertThat(basket.getQuantity(99)).isEqualTo(100);
+    }
+
+    @Test
+    public void shouldRemoveAllLinesWhenCleared() {
+        // given
+        Basket basket = Basket.of(List.of(product1, product2));
+
+        // when
+        basket.clear();
+        basket.add(product2, 2);
+
+        // then
+        assertThat(basket).isEqualTo(Basket.of(List.of(product2, product2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenQuantityIsNotPositive() {
+        // when & then
+        new Basket().add(product1, -1);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldThrowExceptionWhenQuantityOverflows() {
+        // given
+        Basket basket = new Basket();
+        basket.add(product1, Long.MAX_VALUE);
+
+        // when & then
+        basket.add(product1, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenProductIsNull() {
+        // when & then
+        new Basket().add(null, 1);
+    }
+}
@@ -1,7 +1,10 @@
 package my.project;
 
+import my.project.catalog.InMemoryProductCatalog;
+import my.project.metrics.PricingMetrics;
 import my.project.summary.BasketSummary;
 import my.project.summary.BasketSummaryFactory;
+import my.project.summary.PricingContext;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -9,11 +12,16 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
 
-import static java.math.BigDecimal.ZERO;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
 public class CheckoutTest {
@@ -30,12 +38,16 @@ public class CheckoutTest {
     @Mock
     private BasketSummaryFactory basketSummaryFactory;
 
+    @Mock
+    private PricingMetrics pricingMetrics;
+
     @Test
     public void shouldScanProductsAndReturnTotalPrice() {
         // given
         double expectedTotal = 12.34;
-        given(basketSummary.totalPrice()).willReturn(BigDecimal.valueOf(expectedTotal));
-        given(basketSummaryFactory.createBasketSummary(List.of(product1, product2), List.of(promotionalRule1, promotionalRule2)))
+        given(basketSummary.totalPrice()).willReturn(1234L);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+        given(basketSummaryFactory.createBasketSummary(eq(Basket.of(List.of(product1, product2))), eq(promotionPlan), any(PricingContext.class)))
                 .willReturn(basketSummary);
         Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
 
@@ -48,11 +60,31 @@ public class CheckoutTest {
         assertThat(total).isEqualTo(expectedTotal);
     }
 
+    @Test
+    public void shouldKeepPromotionPlanOfRegistryItStartedWith() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(1234L);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1));
+        PromotionRegistry promotionRegistry = new PromotionRegistry(promotionPlan);
+        given(basketSummaryFactory.createBasketSummary(eq(Basket.of(List.of(product1))), eq(promotionPlan), any(PricingContext.class)))
+                .willReturn(basketSummary);
+        Checkout checkout = new Checkout(promotionRegistry, basketSummaryFactory);
+
+        // when
+        promotionRegistry.publish(List.of(promotionalRule2));
+        checkout.scan(product1);
+        Double total = checkout.total();
+
+        // then
+        assertThat(total).isEqualTo(12.34);
+    }
+
     @Test
     public void shouldScanProductsAndReturnZeroWhenTotalPriceIsNegative() {
         // given
-        given(basketSummary.totalPrice()).willReturn(BigDecimal.valueOf(-123));
-        given(basketSummaryFactory.createBasketSummary(List.of(product1, product2), List.of(promotionalRule1, promotionalRule2)))
+        given(basketSummary.totalPrice()).willReturn(-12300L);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+        given(basketSummaryFactory.createBasketSummary(eq(Basket.of(List.of(product1, product2))), eq(promotionPlan), any(PricingContext.class)))
                 .willReturn(basketSummary);
         Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
 
@@ -66,43 +98,198 @@ public class CheckoutTest {
     }
 
     @Test
-    public void shouldScanProductsAndReturnTotalPriceScaledToTwoDigits() {
+    public void shouldReturnZeroWhenNoProductsWereScan() {
         // given
-        double expectedTotal = 12.34;
-        double totalValue = 12.33567;
-        given(basketSummary.totalPrice()).willReturn(BigDecimal.valueOf(totalValue));
-        given(basketSummaryFactory.createBasketSummary(List.of(product1, product2), List.of(promotionalRule1, promotionalRule2)))
+        given(basketSummary.totalPrice()).willReturn(0L);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+        given(basketSummaryFactory.createBasketSummary(eq(Basket.of(emptyList())), eq(promotionPlan), any(PricingContext.class)))
                 .willReturn(basketSummary);
         Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
 
         // when
+        Double total = checkout.total();
+
+        // then
+        assertThat(total).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotReapplyPromotionalRulesWhenScannedProductCannotChangeTheirOutcome() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(1000L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class)))
+                .willReturn(basketSummary);
+        Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
         checkout.scan(product1);
+        checkout.total();
+
+        // when
         checkout.scan(product2);
         Double total = checkout.total();
 
         // then
-        assertThat(total).isEqualTo(expectedTotal);
+        assertThat(total).isEqualTo(12);
+        verify(basketSummaryFactory, times(1)).createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class));
     }
 
     @Test
-    public void shouldReturnZeroWhenNoProductsWereScan() {
+    public void shouldReapplyPromotionalRulesWhenScannedProductCanChangeTheirOutcome() {
+        // given
+        given(promotionalRule2.isAffectedBy(product2)).willReturn(true);
+        given(basketSummary.totalPrice()).willReturn(1000L, 1100L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class)))
+                .willReturn(basketSummary);
+        Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
+        checkout.scan(product1);
+        checkout.total();
+
+        // when
+        checkout.scan(product2);
+        Double total = checkout.total();
+
+        // then
+        assertThat(total).isEqualTo(11);
+        verify(basketSummaryFactory, times(2)).createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class));
+    }
+
+    @Test
+    public void shouldReapplyRuleWithMinimumTotalPriceWhenOtherProductIsScanned() {
+        // given
+        PromotionalRule promotionalRule = new PromotionalRule() {
+            @Override
+            public void applyPromotion(BasketSummary basketSummary) {
+                basketSummary.setDiscount(100);
+            }
+
+            @Override
+            public int priority() {
+                return 0;
+            }
+
+            @Override
+            public Set<String> productCodes() {
+                return Set.of(product1.getCode());
+            }
+
+            @Override
+            public long minimumTotalPrice() {
+                return 300;
+            }
+        };
+        Checkout checkout = new Checkout(List.of(promotionalRule), new BasketSummaryFactory());
+        checkout.scan(product1);
+        checkout.total();
+
+        // when
+        checkout.scan(product2);
+        Double total = checkout.total();
+
+        // then
+        assertThat(promotionalRule.isAffectedBy(product2)).isTrue();
+        assertThat(total).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldScanQuantityOfProduct() {
         // given
-        given(basketSummary.totalPrice()).willReturn(ZERO);
-        given(basketSummaryFactory.createBasketSummary(emptyList(), List.of(promotionalRule1, promotionalRule2)))
+        given(basketSummary.totalPrice()).willReturn(100L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class)))
                 .willReturn(basketSummary);
         Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
+        checkout.scan(product1);
+        checkout.total();
 
         // when
+        checkout.scan(product2, 3);
+        checkout.scan(product1, 2);
         Double total = checkout.total();
 
         // then
-        assertThat(total).isEqualTo(0);
+        assertThat(total).isEqualTo(9);
+        verify(basketSummaryFactory, times(1)).createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenQuantityIsNotPositive() {
+        // given
+        Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
+
+        // when & then
+        checkout.scan(product1, 0);
+    }
+
+    @Test
+    public void shouldRecordLatencyOfTotal() {
+        // given
+        given(pricingMetrics.isEnabled()).willReturn(true);
+        given(basketSummary.totalPrice()).willReturn(100L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class)))
+                .willReturn(basketSummary);
+        Checkout checkout = new Checkout(PromotionPlan.compile(List.of(promotionalRule1)), basketSummaryFactory, pricingMetrics);
+        checkout.scan(product1);
+
+        // when
+        checkout.total();
+        checkout.total();
+
+        // then
+        verify(pricingMetrics, times(2)).recordTotal(anyLong());
+    }
+
+    @Test
+    public void shouldShareCompiledPromotionPlan() {
+        // given
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+        given(basketSummary.totalPrice()).willReturn(100L);
+        given(basketSummaryFactory.createBasketSummary(eq(Basket.of(List.of(product1))), eq(promotionPlan), any(PricingContext.class))).willReturn(basketSummary);
+        Checkout checkout1 = new Checkout(promotionPlan, basketSummaryFactory);
+        Checkout checkout2 = new Checkout(promotionPlan, basketSummaryFactory);
+
+        // when
+        checkout1.scan(product1);
+        checkout2.scan(product1);
+
+        // then
+        assertThat(checkout1.total()).isEqualTo(1);
+        assertThat(checkout2.total()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldScanProductsByCodeAndIdFromCatalog() {
+        // given
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+        given(basketSummary.totalPrice()).willReturn(300L);
+        given(basketSummaryFactory.createBasketSummary(eq(Basket.of(List.of(product1, product2))), eq(promotionPlan), any(PricingContext.class))).willReturn(basketSummary);
+        Checkout checkout = new Checkout(promotionPlan, basketSummaryFactory, new InMemoryProductCatalog(List.of(product1, product2)));
+
+        // when
+        checkout.scanByCode(product1.getCode());
+        checkout.scanById(1);
+        Double total = checkout.total();
+
+        // then
+        assertThat(total).isEqualTo(3);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldThrowExceptionWhenScanningByCodeWithoutCatalog() {
+        // given
+        Checkout checkout = new Checkout(List.of(promotionalRule1, promotionalRule2), basketSummaryFactory);
+
+        // when & then
+        checkout.scanByCode(product1.getCode());
     }
 
     @Test(expected = NullPointerException.class)
     public void shouldThrowExceptionWhenPromotionalRulesAreNull() {
         // when & then
-        new Checkout(null, basketSummaryFactory);
+        new Checkout((List<PromotionalRule>) null, basketSummaryFactory);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenPromotionPlanIsNull() {
+        // when & then
+        new Checkout((PromotionPlan) null, basketSummaryFactory);
     }
 
     @Test(expected = NullPointerException.class)
@@ -120,4 +307,48 @@ public class CheckoutTest {
         checkout.scan(null);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldNotChangeBasketWhenPriceOfScannedProductsOverflows() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(200L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class)))
+                .willReturn(basketSummary);
+        Checkout checkout = new Checkout(PromotionPlan.compile(emptyList()), basketSummaryFactory);
+        checkout.scan(product2);
+        checkout.total();
+
+        // when
+        try {
+            checkout.scan(product1, Long.MAX_VALUE / 10);
+        } catch (ArithmeticException e) {
+            // expected
+        }
+
+        // then
+        assertThat(checkout.total()).isEqualTo(2);
+        verify(basketSummaryFactory, times(1)).createBasketSummary(any(Basket.class), any(PromotionPlan.class), any(PricingContext.class));
+    }
+
+    @Test
+    public void shouldNotScanAnyLineOfBasketWhenOneOfThemOverflows() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(100L);
+        given(basketSummaryFactory.createBasketSummary(eq(Basket.of(List.of(product1))), any(PromotionPlan.class), any(PricingContext.class)))
+                .willReturn(basketSummary);
+        Checkout checkout = new Checkout(PromotionPlan.compile(emptyList()), basketSummaryFactory);
+        checkout.scan(product1);
+        Basket products = new Basket();
+        products.add(product2, 1);
+        products.add(product1, Long.MAX_VALUE / 100);
+
+        // when
+        try {
+            checkout.scanAll(products);
+        } catch (ArithmeticException e) {
+            // expected
+        }
+
+        // then
+        assertThat(checkout.total()).isEqualTo(1);
+    }
+}
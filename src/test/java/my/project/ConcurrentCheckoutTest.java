@@ -0,0 +1,154 @@
+package my.project;
+
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import my.project.summary.BasketSummary;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ConcurrentCheckoutTest {
+
+    private static final int NUMBER_OF_SCANNERS = 4;
+    private static final int SCANS_PER_SCANNER = 1000;
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+    private final Product kidsShirt = new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95));
+
+    private final List<PromotionalRule> promotionalRules = List.of(
+            new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50)),
+            new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10)
+    );
+
+    private final BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory();
+
+    @Test
+    public void shouldCalculateTheSameTotalAsCheckout() {
+        // given
+        ConcurrentCheckout concurrentCheckout = new ConcurrentCheckout(promotionalRules, basketSummaryFactory);
+
+        // when
+        concurrentCheckout.scan(travelCardHolder);
+        concurrentCheckout.scan(cufflinks);
+        concurrentCheckout.scan(kidsShirt);
+        concurrentCheckout.scan(travelCardHolder);
+
+        // then
+        assertThat(concurrentCheckout.total()).isEqualTo(73.76);
+    }
+
+    @Test
+    public void shouldCalculateTotalOfProductsScannedByManyThreads() throws Exception {
+        // given
+        ConcurrentCheckout concurrentCheckout = new ConcurrentCheckout(promotionalRules, basketSummaryFactory);
+        Checkout checkout = new Checkout(promotionalRules, basketSummaryFactory);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_SCANNERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> scanners = new ArrayList<>();
+
+        // when
+        for (int scanner = 0; scanner < NUMBER_OF_SCANNERS; scanner++) {
+            Product product = List.of(travelCardHolder, cufflinks, kidsShirt).get(scanner % 3);
+            scanners.add(executorService.submit(() -> {
+                start.await();
+                for (int scan = 0; scan < SCANS_PER_SCANNER; scan++) {
+                    concurrentCheckout.scan(product);
+                }
+                return null;
+            }));
+            for (int scan = 0; scan < SCANS_PER_SCANNER; scan++) {
+                checkout.scan(product);
+            }
+        }
+        Future<?> reader = executorService.submit(() -> {
+            start.await();
+            for (int read = 0; read < 100; read++) {
+                assertThat(concurrentCheckout.total()).isBetween(0d, checkout.total());
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> scanner : scanners) {
+            scanner.get();
+        }
+        reader.get();
+        executorService.shutdown();
+        executorService.awaitTermination(1, TimeUnit.SECONDS);
+
+        // then
+        assertThat(concurrentCheckout.total()).isEqualTo(checkout.total());
+    }
+
+    @Test
+    public void shouldReuseTotalWhenNothingWasScanned() {
+        // given
+        BasketSummaryFactory basketSummaryFactory = mock(BasketSummaryFactory.class);
+        BasketSummary basketSummary = mock(BasketSummary.class);
+        given(basketSummary.totalPrice()).willReturn(925L);
+        given(basketSummaryFactory.createBasketSummary(anyListOf(Product.class), any(PromotionPlan.class))).willReturn(basketSummary);
+        ConcurrentCheckout concurrentCheckout = new ConcurrentCheckout(promotionalRules, basketSummaryFactory);
+        concurrentCheckout.scan(travelCardHolder);
+
+        // when
+        concurrentCheckout.total();
+        Double total = concurrentCheckout.total();
+
+        // then
+        assertThat(total).isEqualTo(9.25);
+        verify(basketSummaryFactory, times(1)).createBasketSummary(anyListOf(Product.class), any(PromotionPlan.class));
+    }
+
+    @Test
+    public void shouldNotReuseTotalWhenProductWasScannedWhilePricing() {
+        // given
+        BasketSummaryFactory basketSummaryFactory = mock(BasketSummaryFactory.class);
+        ConcurrentCheckout concurrentCheckout = new ConcurrentCheckout(promotionalRules, basketSummaryFactory);
+        concurrentCheckout.scan(travelCardHolder);
+        willAnswer(a -> {
+            // another thread scans after the snapshot was taken, before its total is remembered
+            concurrentCheckout.scan(cufflinks);
+            return this.basketSummaryFactory.createBasketSummary(a.getArgumentAt(0, List.class), a.getArgumentAt(1, PromotionPlan.class));
+        }).willAnswer(a -> this.basketSummaryFactory.createBasketSummary(a.getArgumentAt(0, List.class), a.getArgumentAt(1, PromotionPlan.class)))
+                .given(basketSummaryFactory).createBasketSummary(anyListOf(Product.class), any(PromotionPlan.class));
+
+        // when
+        Double totalWhileScanning = concurrentCheckout.total();
+        Double total = concurrentCheckout.total();
+
+        // then
+        assertThat(totalWhileScanning).isEqualTo(9.25);
+        assertThat(total).isEqualTo(54.25);
+        verify(basketSummaryFactory, times(2)).createBasketSummary(anyListOf(Product.class), any(PromotionPlan.class));
+    }
+
+    @Test
+    public void shouldReturnZeroWhenNoProductsWereScanned() {
+        // when & then
+        assertThat(new ConcurrentCheckout(promotionalRules, basketSummaryFactory).total()).isEqualTo(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenProductToScanIsNull() {
+        // when & then
+        new ConcurrentCheckout(promotionalRules, basketSummaryFactory).scan(null);
+    }
+
+}
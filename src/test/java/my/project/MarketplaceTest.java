@@ -3,6 +3,7 @@ package my.project;
 import my.project.rules.PriceOverThresholdPromotionalRule;
 import my.project.rules.OverTwoProductPromotionalRule;
 import my.project.summary.BasketSummaryFactory;
+import my.project.summary.PricingCache;
 import org.junit.Test;
 
 import java.math.BigDecimal;
@@ -66,4 +67,60 @@ public class MarketplaceTest {
         // then
         assertThat(checkout.total()).isEqualTo(73.76);
     }
+
+    @Test
+    public void shouldCalculateTheSameTotalsWhenTotalIsCheckedAfterEachScan() {
+        // given
+        List<PromotionalRule> promotionalRules = List.of(travelCardHolderPromotionalRule, priceOver60PromotionalRule);
+        Checkout checkout = new Checkout(promotionalRules, basketSummaryFactory);
+
+        // when & then
+        checkout.scan(cufflinks);
+        assertThat(checkout.total()).isEqualTo(45);
+        checkout.scan(travelCardHolder);
+        assertThat(checkout.total()).isEqualTo(54.25);
+        checkout.scan(kidsShirt);
+        assertThat(checkout.total()).isEqualTo(66.78);
+        checkout.scan(travelCardHolder);
+        assertThat(checkout.total()).isEqualTo(73.76);
+    }
+
+    @Test
+    public void shouldCalculateTheSameTotalWhenProductsAreScannedWithQuantity() {
+        // given
+        List<PromotionalRule> promotionalRules = List.of(priceOver60PromotionalRule, travelCardHolderPromotionalRule);
+        Checkout checkout = new Checkout(promotionalRules, basketSummaryFactory);
+
+        // when
+        checkout.scan(travelCardHolder, 2);
+        checkout.scan(cufflinks);
+        checkout.scan(kidsShirt, 1);
+
+        // then
+        assertThat(checkout.total()).isEqualTo(73.76);
+    }
+
+    @Test
+    public void shouldCalculateTheSameTotalsWithPricingCache() {
+        // given
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(priceOver60PromotionalRule, travelCardHolderPromotionalRule));
+        PricingCache pricingCache = new PricingCache(basketSummaryFactory, 100);
+        Checkout checkout1 = new Checkout(promotionPlan, pricingCache);
+        Checkout checkout2 = new Checkout(promotionPlan, pricingCache);
+
+        // when
+        checkout1.scan(travelCardHolder);
+        checkout1.scan(travelCardHolder);
+        checkout1.scan(cufflinks);
+        checkout1.scan(kidsShirt);
+        checkout2.scan(kidsShirt);
+        checkout2.scan(travelCardHolder);
+        checkout2.scan(cufflinks);
+        checkout2.scan(travelCardHolder);
+
+        // then
+        assertThat(checkout1.total()).isEqualTo(73.76);
+        assertThat(checkout2.total()).isEqualTo(73.76);
+        assertThat(pricingCache.getHits()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,47 @@
+package my.project;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoneyTest {
+
+    @Test
+    public void shouldConvertAmountToMinorUnits() {
+        // when & then
+        assertThat(Money.of(BigDecimal.valueOf(9.25))).isEqualTo(925);
+        assertThat(Money.of(BigDecimal.valueOf(45))).isEqualTo(4500);
+        assertThat(Money.of(new BigDecimal("0.10"))).isEqualTo(10);
+        assertThat(Money.of(new BigDecimal("-1.5"))).isEqualTo(-150);
+    }
+
+    @Test
+    public void shouldConvertMinorUnitsToAmount() {
+        // when & then
+        assertThat(Money.toBigDecimal(925)).isEqualTo(new BigDecimal("9.25"));
+        assertThat(Money.toDouble(7376)).isEqualTo(73.76);
+    }
+
+    @Test
+    public void shouldRoundPercentageDown() {
+        // when & then
+        assertThat(Money.percentage(8195, 10)).isEqualTo(819);
+        assertThat(Money.percentage(7420, 10)).isEqualTo(742);
+        assertThat(Money.percentage(99, 1)).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenAmountIsNotExactInMinorUnits() {
+        // when & then
+        Money.of(new BigDecimal("12.33567"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenAmountIsNull() {
+        // when & then
+        Money.of(null);
+    }
+
+}
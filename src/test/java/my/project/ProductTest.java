@@ -0,0 +1,40 @@
+package my.project;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductTest {
+
+    @Test
+    public void shouldCalculatePriceInMinorUnits() {
+        // when
+        Product product = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+
+        // then
+        assertThat(product.getPriceInMinorUnits()).isEqualTo(925);
+    }
+
+    @Test
+    public void shouldCompareProductsByCodeNameAndPrice() {
+        // when & then
+        assertThat(new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25)))
+                .isEqualTo(new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25)))
+                .isNotEqualTo(new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenPriceIsNotExactInMinorUnits() {
+        // when & then
+        new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.255));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenPriceIsNull() {
+        // when & then
+        new Product("001", "Travel Card Holder", null);
+    }
+
+}
@@ -0,0 +1,133 @@
+package my.project;
+
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PromotionPlanTest {
+
+    private final Product product1 = new Product("1", "product 1", BigDecimal.valueOf(1));
+
+    @Mock
+    private PromotionalRule promotionalRule1, promotionalRule2, promotionalRule3;
+
+    @Test
+    public void shouldSortRulesByPriority() {
+        // given
+        given(promotionalRule1.priority()).willReturn(10);
+        given(promotionalRule2.priority()).willReturn(0);
+        given(promotionalRule3.priority()).willReturn(5);
+
+        // when
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2, promotionalRule3));
+
+        // then
+        assertThat(promotionPlan.getPromotionalRules()).containsExactly(promotionalRule2, promotionalRule3, promotionalRule1);
+        assertThat(promotionPlan.size()).isEqualTo(3);
+        assertThat(promotionPlan.getPromotionalRule(0)).isEqualTo(promotionalRule2);
+    }
+
+    @Test
+    public void shouldRemoveDuplicatedRules() {
+        // when
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2, promotionalRule1));
+
+        // then
+        assertThat(promotionPlan.getPromotionalRules()).containsExactly(promotionalRule1, promotionalRule2);
+    }
+
+    @Test
+    public void shouldReadProductCodesOfRules() {
+        // given
+        given(promotionalRule1.productCodes()).willReturn(Set.of("1"));
+
+        // when
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+
+        // then
+        assertThat(promotionPlan.getProductCodes(0)).containsExactly("1");
+        assertThat(promotionPlan.getProductCodes(1)).isEmpty();
+    }
+
+    @Test
+    public void shouldBeAffectedByProductWhenAnyRuleIs() {
+        // given
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+
+        // when & then
+        assertThat(promotionPlan.isAffectedBy(product1)).isFalse();
+        given(promotionalRule2.isAffectedBy(product1)).willReturn(true);
+        assertThat(promotionPlan.isAffectedBy(product1)).isTrue();
+    }
+
+    @Test
+    public void shouldBeAffectedByCodesOfRulesWithDefaultCheck() {
+        // given
+        Product product2 = new Product("2", "product 2", BigDecimal.valueOf(2));
+        PromotionalRule overTwoProductPromotionalRule = new OverTwoProductPromotionalRule("1", BigDecimal.valueOf(0.5));
+        PromotionalRule priceOverThresholdPromotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
+
+        // when
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(overTwoProductPromotionalRule, promotionalRule1));
+        PromotionPlan wholeBasketPromotionPlan = PromotionPlan.compile(List.of(overTwoProductPromotionalRule, priceOverThresholdPromotionalRule));
+
+        // then
+        assertThat(promotionPlan.isAffectedBy(product1)).isTrue();
+        assertThat(promotionPlan.isAffectedBy(product2)).isFalse();
+        given(promotionalRule1.isAffectedBy(product2)).willReturn(true);
+        assertThat(promotionPlan.isAffectedBy(product2)).isTrue();
+        assertThat(wholeBasketPromotionPlan.isAffectedBy(product2)).isTrue();
+    }
+
+    @Test
+    public void shouldBeEqualToPlanOfTheSameRules() {
+        // when & then
+        assertThat(PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2)))
+                .isEqualTo(PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2)))
+                .isNotEqualTo(PromotionPlan.compile(List.of(promotionalRule1)));
+    }
+
+    @Test
+    public void shouldReadRequirementsOfRules() {
+        // given
+        given(promotionalRule1.minimumQuantity()).willReturn(2L);
+        given(promotionalRule2.minimumTotalPrice()).willReturn(6001L);
+
+        // when
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+
+        // then
+        assertThat(promotionPlan.getMinimumQuantity(0)).isEqualTo(2);
+        assertThat(promotionPlan.getMinimumTotalPrice(0)).isEqualTo(0);
+        assertThat(promotionPlan.getMinimumQuantity(1)).isEqualTo(0);
+        assertThat(promotionPlan.getMinimumTotalPrice(1)).isEqualTo(6001);
+    }
+
+    @Test
+    public void shouldGiveNewVersionToEveryCompiledPlan() {
+        // given
+        PromotionPlan promotionPlan1 = PromotionPlan.compile(List.of(promotionalRule1));
+        PromotionPlan promotionPlan2 = PromotionPlan.compile(List.of(promotionalRule1));
+
+        // when & then
+        assertThat(promotionPlan2.getVersion()).isGreaterThan(promotionPlan1.getVersion());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenRulesAreNull() {
+        // when & then
+        PromotionPlan.compile(null);
+    }
+
+}
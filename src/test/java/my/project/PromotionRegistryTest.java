@@ -0,0 +1,90 @@
+package my.project;
+
+import my.project.summary.BasketSummary;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PromotionRegistryTest {
+
+    @Mock
+    private PromotionalRule promotionalRule1, promotionalRule2;
+
+    @Test
+    public void shouldPublishNewPromotionPlan() {
+        // given
+        PromotionPlan oldPromotionPlan = PromotionPlan.compile(List.of(promotionalRule1));
+        PromotionRegistry promotionRegistry = new PromotionRegistry(oldPromotionPlan);
+
+        // when
+        PromotionPlan replacedPromotionPlan = promotionRegistry.publish(List.of(promotionalRule2));
+
+        // then
+        assertThat(replacedPromotionPlan).isSameAs(oldPromotionPlan);
+        assertThat(promotionRegistry.getPromotionPlan().getPromotionalRules()).containsExactly(promotionalRule2);
+        assertThat(promotionRegistry.getPromotionPlan().getVersion()).isNotEqualTo(oldPromotionPlan.getVersion());
+    }
+
+    @Test
+    public void shouldUpdateRulesOfCurrentPromotionPlan() {
+        // given
+        PromotionRegistry promotionRegistry = new PromotionRegistry(List.of(promotionalRule1));
+
+        // when
+        PromotionPlan promotionPlan = promotionRegistry.update(promotionalRules -> with(promotionalRules, promotionalRule2));
+
+        // then
+        assertThat(promotionRegistry.getPromotionPlan()).isSameAs(promotionPlan);
+        assertThat(promotionPlan.getPromotionalRules()).containsOnly(promotionalRule1, promotionalRule2);
+    }
+
+    @Test
+    public void shouldNotLoseConcurrentUpdates() throws InterruptedException {
+        // given
+        PromotionRegistry promotionRegistry = new PromotionRegistry(List.of());
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        // when
+        for (int update = 0; update < 100; update++) {
+            executorService.execute(() -> promotionRegistry.update(promotionalRules -> with(promotionalRules, new TestRule())));
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(promotionRegistry.getPromotionPlan().size()).isEqualTo(100);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenPublishedPlanIsNull() {
+        // when & then
+        new PromotionRegistry(List.of()).publish((PromotionPlan) null);
+    }
+
+    private static List<PromotionalRule> with(List<PromotionalRule> promotionalRules, PromotionalRule promotionalRule) {
+        List<PromotionalRule> newPromotionalRules = new ArrayList<>(promotionalRules);
+        newPromotionalRules.add(promotionalRule);
+        return newPromotionalRules;
+    }
+
+    private static class TestRule implements PromotionalRule {
+        @Override
+        public void applyPromotion(BasketSummary basketSummary) {
+        }
+
+        @Override
+        public int priority() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package my.project.audit;
+
+import my.project.Basket;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.metrics.PricingMetrics;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditFileWriterTest {
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+    private final Product kidsShirt = new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95));
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteDiscountsOfRulesToFile() throws IOException {
+        // given
+        Path auditFile = temporaryFolder.getRoot().toPath().resolve("audit.csv");
+        AuditRingBuffer auditRingBuffer = new AuditRingBuffer(64);
+        BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory(PricingMetrics.NONE, auditRingBuffer);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(
+                new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10),
+                new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50))));
+
+        // when
+        AuditFileWriter auditFileWriter = new AuditFileWriter(auditRingBuffer, auditFile, 10);
+        basketSummaryFactory.createBasketSummary(Basket.of(List.of(travelCardHolder, travelCardHolder, cufflinks, kidsShirt)), promotionPlan);
+        auditFileWriter.close();
+
+        // then
+        String version = Long.toString(promotionPlan.getVersion());
+        assertThat(Files.readAllLines(auditFile)).containsExactly(
+                "1," + version + ",0,OverTwoProductPromotionalRule,-1,0,001,150",
+                "1," + version + ",1,PriceOverThresholdPromotionalRule,-1,-1,,819");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenDrainIntervalIsNotPositive() throws IOException {
+        // when & then
+        new AuditFileWriter(new AuditRingBuffer(64), temporaryFolder.getRoot().toPath().resolve("audit.csv"), 0);
+    }
+}
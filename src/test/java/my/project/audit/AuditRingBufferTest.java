@@ -0,0 +1,116 @@
+package my.project.audit;
+
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AuditRingBufferTest {
+
+    private final Product product1 = new Product("1", "product 1", BigDecimal.valueOf(1));
+
+    @Mock
+    private PromotionalRule promotionalRule1;
+
+    @Test
+    public void shouldDrainRecordsInOrder() {
+        // given
+        AuditRingBuffer auditRingBuffer = new AuditRingBuffer(8);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1));
+        long basketId = auditRingBuffer.startBasket();
+        auditRingBuffer.record(basketId, promotionPlan, 0, 3, 2, product1, 150);
+        auditRingBuffer.record(basketId, promotionPlan, 0, AuditRecord.NO_PROMOTION_ID, AuditRecord.WHOLE_BASKET, null, 25);
+        List<String> records = new ArrayList<>();
+
+        // when
+        int drainedRecords = auditRingBuffer.drain(auditRecord -> records.add(auditRecord.getBasketId() + ","
+                + auditRecord.getPlanVersion() + "," + auditRecord.getRuleIndex() + "," + auditRecord.getPromotionId() + ","
+                + auditRecord.getLine() + ","
+                + auditRecord.getProduct() + "," + auditRecord.getAmount()));
+
+        // then
+        assertThat(drainedRecords).isEqualTo(2);
+        assertThat(records).containsExactly(
+                basketId + "," + promotionPlan.getVersion() + ",0,3,2," + product1 + ",150",
+                basketId + "," + promotionPlan.getVersion() + ",0,-1,-1,null,25");
+        assertThat(auditRingBuffer.drain(auditRecord -> records.add("again"))).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldGiveEveryBasketNewId() {
+        // given
+        AuditRingBuffer auditRingBuffer = new AuditRingBuffer(8);
+
+        // when
+        long basketId1 = auditRingBuffer.startBasket();
+        long basketId2 = auditRingBuffer.startBasket();
+
+        // then
+        assertThat(basketId2).isNotEqualTo(basketId1);
+    }
+
+    @Test
+    public void shouldDropRecordsWhenBufferIsFull() {
+        // given
+        AuditRingBuffer auditRingBuffer = new AuditRingBuffer(2);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1));
+
+        // when
+        for (int amount = 1; amount <= 3; amount++) {
+            auditRingBuffer.record(1, promotionPlan, 0, AuditRecord.NO_PROMOTION_ID, 0, product1, amount);
+        }
+        List<Long> amounts = new ArrayList<>();
+        auditRingBuffer.drain(auditRecord -> amounts.add(auditRecord.getAmount()));
+        auditRingBuffer.record(1, promotionPlan, 0, AuditRecord.NO_PROMOTION_ID, 0, product1, 4);
+        auditRingBuffer.drain(auditRecord -> amounts.add(auditRecord.getAmount()));
+
+        // then
+        assertThat(amounts).containsExactly(1L, 2L, 4L);
+        assertThat(auditRingBuffer.getDroppedRecords()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepRecordsOfConcurrentThreads() throws InterruptedException {
+        // given
+        AuditRingBuffer auditRingBuffer = new AuditRingBuffer(1024);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1));
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        // when
+        for (int thread = 0; thread < 4; thread++) {
+            executorService.execute(() -> {
+                for (int record = 0; record < 100; record++) {
+                    auditRingBuffer.record(auditRingBuffer.startBasket(), promotionPlan, 0, AuditRecord.NO_PROMOTION_ID, 0, product1, 1);
+                }
+            });
+        }
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+        long[] amount = new long[1];
+        int drainedRecords = auditRingBuffer.drain(auditRecord -> amount[0] += auditRecord.getAmount());
+
+        // then
+        assertThat(drainedRecords).isEqualTo(400);
+        assertThat(amount[0]).isEqualTo(400);
+        assertThat(auditRingBuffer.getDroppedRecords()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenCapacityIsNotPowerOfTwo() {
+        // when & then
+        new AuditRingBuffer(100);
+    }
+}
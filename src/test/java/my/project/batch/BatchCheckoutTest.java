@@ -0,0 +1,80 @@
+package my.project.batch;
+
+import my.project.Product;
+import my.project.PromotionalRule;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchCheckoutTest {
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+    private final Product kidsShirt = new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95));
+
+    private final List<PromotionalRule> promotionalRules = List.of(
+            new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50)),
+            new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10)
+    );
+
+    private final List<List<Product>> baskets = List.of(
+            List.of(travelCardHolder, cufflinks, kidsShirt, travelCardHolder),
+            List.of(travelCardHolder, kidsShirt, travelCardHolder),
+            emptyList(),
+            List.of(travelCardHolder, cufflinks, kidsShirt)
+    );
+
+    private final BatchCheckout batchCheckout = new BatchCheckout(promotionalRules, new BasketSummaryFactory());
+
+    @Test
+    public void shouldPriceAllBasketsInOrder() {
+        // when
+        double[] totals = batchCheckout.totals(baskets);
+
+        // then
+        assertThat(totals).containsExactly(73.76, 36.95, 0, 66.78);
+    }
+
+    @Test
+    public void shouldPriceStreamOfBasketsInOrder() {
+        // when
+        double[] totals = batchCheckout.totals(baskets.stream().parallel()).toArray();
+
+        // then
+        assertThat(totals).containsExactly(73.76, 36.95, 0, 66.78);
+    }
+
+    @Test
+    public void shouldReturnNoTotalsWhenThereAreNoBaskets() {
+        // when & then
+        assertThat(batchCheckout.totals(emptyList())).isEmpty();
+        assertThat(batchCheckout.totals(Stream.empty()).toArray()).isEmpty();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenBasketsAreNull() {
+        // when & then
+        batchCheckout.totals((List<List<Product>>) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenPromotionalRulesAreNull() {
+        // when & then
+        new BatchCheckout((List<PromotionalRule>) null, new BasketSummaryFactory());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenBasketSummaryFactoryIsNull() {
+        // when & then
+        new BatchCheckout(promotionalRules, null);
+    }
+
+}
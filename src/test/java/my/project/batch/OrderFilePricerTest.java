@@ -0,0 +1,96 @@
+package my.project.batch;
+
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.catalog.InMemoryProductCatalog;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OrderFilePricerTest {
+
+    private final InMemoryProductCatalog productCatalog = new InMemoryProductCatalog(List.of(
+            new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25)),
+            new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45)),
+            new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95))
+    ));
+
+    private final PromotionPlan promotionPlan = PromotionPlan.compile(List.of(
+            new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50)),
+            new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10)
+    ));
+
+    private final OrderFilePricer orderFilePricer = new OrderFilePricer(promotionPlan, new BasketSummaryFactory(), productCatalog);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteTotalsOfAllOrders() throws IOException {
+        // given
+        Path orders = temporaryFolder.newFile().toPath();
+        Path totals = temporaryFolder.newFile().toPath();
+        Files.write(orders, List.of(
+                "order-1,001,002,003",
+                "order-2,001,003,001",
+                "",
+                "order-3,001,001,002,003",
+                "order-4"
+        ));
+
+        // when
+        long numberOfOrders = orderFilePricer.price(orders, totals);
+
+        // then
+        assertThat(numberOfOrders).isEqualTo(4);
+        assertThat(Files.readAllLines(totals)).containsExactly(
+                "order-1,66.78",
+                "order-2,36.95",
+                "order-3,73.76",
+                "order-4,0.00"
+        );
+    }
+
+    @Test
+    public void shouldThrowExceptionWithLineNumberWhenProductIsUnknown() throws IOException {
+        // given
+        Path orders = temporaryFolder.newFile().toPath();
+        Files.write(orders, List.of("order-1,001", "order-2,001,004"));
+
+        Path totals = temporaryFolder.newFile().toPath();
+
+        // when & then
+        assertThatThrownBy(() -> orderFilePricer.price(orders, totals))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenIdOfOrderIsMissing() throws IOException {
+        // given
+        Path orders = temporaryFolder.newFile().toPath();
+        Files.write(orders, List.of(",001,002"));
+
+        // when & then
+        orderFilePricer.price(orders, temporaryFolder.newFile().toPath());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenProductCatalogIsNull() {
+        // when & then
+        new OrderFilePricer(promotionPlan, new BasketSummaryFactory(), null);
+    }
+
+}
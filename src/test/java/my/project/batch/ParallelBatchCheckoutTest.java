@@ -0,0 +1,105 @@
+package my.project.batch;
+
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.After;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelBatchCheckoutTest {
+
+    private final List<Product> products = List.of(
+            new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25)),
+            new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45)),
+            new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95))
+    );
+
+    private final PromotionPlan promotionPlan = PromotionPlan.compile(List.of(
+            new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50)),
+            new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10)
+    ));
+
+    private final BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory();
+
+    private final ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    public void shouldPriceBasketsInInputOrderLikeSequentialBatchCheckout() {
+        // given
+        List<List<Product>> baskets = randomBaskets(1000);
+        ParallelBatchCheckout parallelBatchCheckout = new ParallelBatchCheckout(promotionPlan, basketSummaryFactory, forkJoinPool, 7);
+        double[] expectedTotals = new BatchCheckout(promotionPlan, basketSummaryFactory).totals(baskets);
+
+        // when
+        double[] totals = parallelBatchCheckout.totals(baskets);
+
+        // then
+        assertThat(totals).containsExactly(expectedTotals);
+    }
+
+    @Test
+    public void shouldPriceBasketsWithoutRandomAccess() {
+        // given
+        ParallelBatchCheckout parallelBatchCheckout = new ParallelBatchCheckout(promotionPlan, basketSummaryFactory, forkJoinPool, 1);
+        List<List<Product>> baskets = new LinkedList<>(List.of(
+                List.of(products.get(0), products.get(1), products.get(2), products.get(0)),
+                List.of(products.get(0), products.get(2), products.get(0)),
+                List.of(products.get(0), products.get(1), products.get(2))
+        ));
+
+        // when
+        double[] totals = parallelBatchCheckout.totals(baskets);
+
+        // then
+        assertThat(totals).containsExactly(73.76, 36.95, 66.78);
+    }
+
+    @Test
+    public void shouldReturnNoTotalsWhenThereAreNoBaskets() {
+        // given
+        ParallelBatchCheckout parallelBatchCheckout = new ParallelBatchCheckout(promotionPlan, basketSummaryFactory, forkJoinPool);
+
+        // when & then
+        assertThat(parallelBatchCheckout.totals(emptyList())).isEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenNumberOfBasketsPerTaskIsNotPositive() {
+        // when & then
+        new ParallelBatchCheckout(promotionPlan, basketSummaryFactory, forkJoinPool, 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenForkJoinPoolIsNull() {
+        // when & then
+        new ParallelBatchCheckout(promotionPlan, basketSummaryFactory, null);
+    }
+
+    private List<List<Product>> randomBaskets(int numberOfBaskets) {
+        Random random = new Random(42);
+        return IntStream.range(0, numberOfBaskets)
+                .mapToObj(index -> IntStream.range(0, random.nextInt(10))
+                        .mapToObj(line -> products.get(random.nextInt(products.size())))
+                        .collect(toList()))
+                .collect(toList());
+    }
+
+}
@@ -0,0 +1,75 @@
+package my.project.catalog;
+
+import my.project.Product;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InMemoryProductCatalogTest {
+
+    private final Product product1 = new Product("1", "product 1", BigDecimal.valueOf(1));
+    private final Product product2 = new Product("2", "product 2", BigDecimal.valueOf(2));
+
+    private final InMemoryProductCatalog productCatalog = new InMemoryProductCatalog(List.of(product1, product2, product1));
+
+    @Test
+    public void shouldAssignDenseIdsToDistinctProducts() {
+        // when & then
+        assertThat(productCatalog.size()).isEqualTo(2);
+        assertThat(productCatalog.getProductId("1")).isEqualTo(0);
+        assertThat(productCatalog.getProductId("2")).isEqualTo(1);
+        assertThat(productCatalog.getProduct(1)).isSameAs(product2);
+    }
+
+    @Test
+    public void shouldFindProductByCode() {
+        // when & then
+        assertThat(productCatalog.getProduct("1")).isSameAs(product1);
+    }
+
+    @Test
+    public void shouldInternEqualProduct() {
+        // given
+        Product equalProduct = new Product("1", "product 1", BigDecimal.valueOf(1));
+
+        // when
+        Product internedProduct = productCatalog.intern(equalProduct);
+
+        // then
+        assertThat(internedProduct).isSameAs(product1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenInternedProductIsDifferent() {
+        // when & then
+        productCatalog.intern(new Product("1", "product 1", BigDecimal.valueOf(5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenDifferentProductsHaveTheSameCode() {
+        // when & then
+        new InMemoryProductCatalog(List.of(product1, new Product("1", "other product", BigDecimal.valueOf(1))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenCodeIsUnknown() {
+        // when & then
+        productCatalog.getProduct("3");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenIdIsUnknown() {
+        // when & then
+        productCatalog.getProduct(2);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenProductsAreNull() {
+        // when & then
+        new InMemoryProductCatalog(null);
+    }
+
+}
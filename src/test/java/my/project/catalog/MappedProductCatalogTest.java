@@ -0,0 +1,168 @@
+package my.project.catalog;
+
+import my.project.Product;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class MappedProductCatalogTest {
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+    private final Product kidsShirt = new Product("0031", "Kids T-shirt żółty", BigDecimal.valueOf(19.95));
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadProductsWrittenToFile() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        MappedProductCatalog.write(file, List.of(kidsShirt, travelCardHolder, cufflinks));
+
+        // when
+        MappedProductCatalog productCatalog = MappedProductCatalog.open(file);
+
+        // then
+        assertThat(productCatalog.size()).isEqualTo(3);
+        assertThat(List.of(productCatalog.getProduct(0), productCatalog.getProduct(1), productCatalog.getProduct(2)))
+                .extracting("code", "name", "priceInMinorUnits")
+                .containsExactly(
+                        tuple("001", "Travel Card Holder", 925L),
+                        tuple("002", "Personalised cufflinks", 4500L),
+                        tuple("0031", "Kids T-shirt żółty", 1995L)
+                );
+    }
+
+    @Test
+    public void shouldFindProductsByCode() throws IOException {
+        // given
+        MappedProductCatalog productCatalog = catalogOf(List.of(kidsShirt, travelCardHolder, cufflinks));
+
+        // when & then
+        assertThat(productCatalog.getProductId("001")).isEqualTo(0);
+        assertThat(productCatalog.getProductId("0031")).isEqualTo(2);
+        assertThat(productCatalog.getProduct("002").getName()).isEqualTo("Personalised cufflinks");
+    }
+
+    @Test
+    public void shouldCreateProductOnceWhenItIsAskedFor() throws IOException {
+        // given
+        MappedProductCatalog productCatalog = catalogOf(List.of(travelCardHolder, cufflinks));
+
+        // when
+        Product product = productCatalog.getProduct("002");
+
+        // then
+        assertThat(productCatalog.getProduct(1)).isSameAs(product);
+    }
+
+    @Test
+    public void shouldOpenEmptyCatalog() throws IOException {
+        // when
+        MappedProductCatalog productCatalog = catalogOf(emptyList());
+
+        // then
+        assertThat(productCatalog.size()).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenCodeIsUnknown() throws IOException {
+        // given
+        MappedProductCatalog productCatalog = catalogOf(List.of(travelCardHolder, kidsShirt));
+
+        // when & then
+        productCatalog.getProductId("003");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenCodeIsPaddedWithZero() throws IOException {
+        // given
+        Product longerCode = new Product("00311", "Longer code", BigDecimal.valueOf(1));
+        MappedProductCatalog productCatalog = catalogOf(List.of(travelCardHolder, longerCode));
+
+        // when & then
+        productCatalog.getProductId(travelCardHolder.getCode() + "\u0000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenCodeIsLongerThanAllCodes() throws IOException {
+        // given
+        MappedProductCatalog productCatalog = catalogOf(List.of(travelCardHolder, kidsShirt));
+
+        // when & then
+        productCatalog.getProductId("00311");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenIdIsUnknown() throws IOException {
+        // given
+        MappedProductCatalog productCatalog = catalogOf(List.of(travelCardHolder));
+
+        // when & then
+        productCatalog.getProduct(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenProductsHaveTheSameCode() throws IOException {
+        // when & then
+        catalogOf(List.of(travelCardHolder, new Product("001", "other", BigDecimal.ONE)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenFileIsNotCatalog() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        Files.writeString(file, "001,Travel Card Holder,9.25");
+
+        // when & then
+        MappedProductCatalog.open(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenNumberOfProductsIsNegative() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, ByteBuffer.allocate(16).putInt(0x4D504331).putInt(1).putInt(-1).putInt(3).array());
+
+        // when & then
+        MappedProductCatalog.open(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenFileIsTruncated() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        MappedProductCatalog.write(file, List.of(travelCardHolder, kidsShirt));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, 30));
+
+        // when & then
+        MappedProductCatalog.open(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenCodeContainsZero() throws IOException {
+        // when & then
+        catalogOf(List.of(new Product("00\u00001", "other", BigDecimal.ONE)));
+    }
+
+    private MappedProductCatalog catalogOf(List<Product> products) throws IOException {
+        Path file = temporaryFolder.newFile().toPath();
+        MappedProductCatalog.write(file, products);
+        return MappedProductCatalog.open(file);
+    }
+
+}
@@ -0,0 +1,200 @@
+package my.project.codec;
+
+import my.project.Basket;
+import my.project.Product;
+import my.project.catalog.InMemoryProductCatalog;
+import my.project.summary.BasketSummary;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BasketCodecTest {
+
+    private final Product product1 = new Product("1", "product 1", BigDecimal.valueOf(1));
+    private final Product product2 = new Product("2", "product 2", BigDecimal.valueOf(250));
+
+    private final InMemoryProductCatalog productCatalog = new InMemoryProductCatalog(List.of(product1, product2));
+
+    private final BasketCodec basketCodec = new BasketCodec(productCatalog);
+
+    @Test
+    public void shouldWriteAndReadBasket() {
+        // given
+        List<Product> products = List.of(product1, product1, product1, product2, product1);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        // when
+        basketCodec.writeBasket(products, buffer);
+        Basket readBasket = basketCodec.readBasket(buffer.flip());
+
+        // then
+        assertThat(readBasket).isEqualTo(Basket.of(products));
+        assertThat(readBasket.size()).isEqualTo(3);
+        assertThat(buffer.remaining()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldStoreRunsOfTheSameProductAsQuantity() {
+        // given
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        // when
+        basketCodec.writeBasket(List.of(product2, product2, product2, product2, product2), buffer);
+
+        // then - header, number of runs, product id and quantity
+        assertThat(buffer.position()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldWriteAndReadEmptyBasket() {
+        // given
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        // when
+        basketCodec.writeBasket(emptyList(), buffer);
+
+        // then
+        assertThat(basketCodec.readBasket(buffer.flip())).isEqualTo(new Basket());
+    }
+
+    @Test
+    public void shouldWriteAndReadQuantitiesOfBasket() {
+        // given
+        Basket basket = new Basket();
+        basket.add(product1, 1_000_000);
+        basket.add(product2, 3);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        // when
+        basketCodec.writeBasket(basket, buffer);
+        Basket readBasket = basketCodec.readBasket(buffer.flip());
+
+        // then
+        assertThat(readBasket).isEqualTo(basket);
+        assertThat(readBasket.getQuantity(0)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    public void shouldWriteAndReadBasketSummary() {
+        // given
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, product1, product2, product2, product2, product2, product2, product1));
+        basketSummary.discount(1, 200);
+        basketSummary.discount(4, 0);
+        basketSummary.setDiscount(123);
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+
+        // when
+        basketCodec.writeBasketSummary(basketSummary, buffer);
+        BasketSummary readBasketSummary = basketCodec.readBasketSummary(buffer.flip());
+
+        // then
+        assertThat(readBasketSummary).isEqualTo(basketSummary);
+        assertThat(readBasketSummary.getQuantity(3)).isEqualTo(5);
+        assertThat(readBasketSummary.isDiscounted(1)).isTrue();
+        assertThat(readBasketSummary.isDiscounted(4)).isTrue();
+        assertThat(readBasketSummary.isDiscounted(2)).isFalse();
+        assertThat(buffer.remaining()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldReadFromPositionOfReadOnlyDirectBuffer() {
+        // given
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.put((byte) 42);
+        basketCodec.writeBasket(List.of(product2, product1), buffer);
+        ByteBuffer readOnlyBuffer = buffer.flip().asReadOnlyBuffer().position(1);
+
+        // when
+        Basket basket = basketCodec.readBasket(readOnlyBuffer);
+
+        // then
+        assertThat(basket).isEqualTo(Basket.of(List.of(product2, product1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenPriceOfProductHasChanged() {
+        // given
+        BasketSummary basketSummary = new BasketSummary(List.of(product1));
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        basketCodec.writeBasketSummary(basketSummary, buffer);
+        Product changedProduct1 = new Product("1", "product 1", BigDecimal.valueOf(2));
+        BasketCodec changedBasketCodec = new BasketCodec(new InMemoryProductCatalog(List.of(changedProduct1)));
+
+        // when & then
+        changedBasketCodec.readBasketSummary(buffer.flip());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenReadingBasketSummaryAsBasket() {
+        // given
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        basketCodec.writeBasketSummary(new BasketSummary(List.of(product1)), buffer);
+
+        // when & then
+        basketCodec.readBasket(buffer.flip());
+    }
+
+    @Test
+    public void shouldReadBasketOfVersion1() {
+        // given
+        // type, version, 2 runs: product 1 x 2, product 2 x 1
+        byte[] encoded = {1, 1, 2, (byte) productCatalog.getProductId("1"), 2, (byte) productCatalog.getProductId("2"), 1};
+
+        // when
+        Basket readBasket = basketCodec.readBasket(ByteBuffer.wrap(encoded));
+
+        // then
+        assertThat(readBasket).isEqualTo(Basket.of(List.of(product1, product1, product2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenVersionOfBasketSummaryIsUnsupported() {
+        // when & then
+        basketCodec.readBasketSummary(ByteBuffer.wrap(new byte[]{2, 1, 0, 0}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenVersionIsUnsupported() {
+        // when & then
+        basketCodec.readBasket(ByteBuffer.wrap(new byte[]{1, 3, 0}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenNumberOfLinesExceedsEncodedData() {
+        // when & then
+        basketCodec.readBasketSummary(ByteBuffer.wrap(new byte[]{2, 2, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenNumberOfLinesIsNegative() {
+        // given
+        byte[] encoded = new byte[12];
+        encoded[0] = 2;
+        encoded[1] = 2;
+        for (int index = 2; index < 11; index++) {
+            encoded[index] = (byte) 0xFF;
+        }
+        encoded[11] = 0x01;
+
+        // when & then
+        basketCodec.readBasketSummary(ByteBuffer.wrap(encoded));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenNumberOfRunsExceedsEncodedData() {
+        // when & then
+        basketCodec.readBasket(ByteBuffer.wrap(new byte[]{1, 2, 0x03, 0x00, 0x01}));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenProductCatalogIsNull() {
+        // when & then
+        new BasketCodec(null);
+    }
+
+}
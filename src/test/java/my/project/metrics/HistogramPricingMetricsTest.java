@@ -0,0 +1,65 @@
+package my.project.metrics;
+
+import my.project.Checkout;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistogramPricingMetricsTest {
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+
+    private final PromotionalRule priceOver60PromotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
+    private final PromotionalRule travelCardHolderPromotionalRule = new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50));
+
+    @Test
+    public void shouldRecordMetricsOfRulesAndTotals() {
+        // given
+        HistogramPricingMetrics pricingMetrics = new HistogramPricingMetrics();
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(priceOver60PromotionalRule, travelCardHolderPromotionalRule));
+        Checkout checkout = new Checkout(promotionPlan, new BasketSummaryFactory(pricingMetrics), pricingMetrics);
+        checkout.scan(travelCardHolder);
+        checkout.scan(travelCardHolder);
+        checkout.scan(cufflinks);
+        checkout.scan(cufflinks);
+
+        // when
+        Double total = checkout.total();
+
+        // then
+        assertThat(total).isEqualTo(96.30);
+        RuleMetrics travelCardHolderMetrics = pricingMetrics.getRuleMetrics(travelCardHolderPromotionalRule);
+        assertThat(travelCardHolderMetrics.getNumberOfCalls()).isEqualTo(1);
+        assertThat(travelCardHolderMetrics.getExaminedLines()).isEqualTo(1);
+        assertThat(travelCardHolderMetrics.getAppliedDiscount()).isEqualTo(150);
+        RuleMetrics priceOver60Metrics = pricingMetrics.getRuleMetrics(priceOver60PromotionalRule);
+        assertThat(priceOver60Metrics.getExaminedLines()).isEqualTo(2);
+        assertThat(priceOver60Metrics.getAppliedDiscount()).isEqualTo(1070);
+        assertThat(pricingMetrics.getRuleMetrics()).hasSize(2);
+        assertThat(pricingMetrics.getTotalLatency().getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotHaveMetricsOfRulesWhichWereNotApplied() {
+        // given
+        HistogramPricingMetrics pricingMetrics = new HistogramPricingMetrics();
+        BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory(pricingMetrics);
+
+        // when
+        basketSummaryFactory.createBasketSummary(List.of(cufflinks), List.of(travelCardHolderPromotionalRule));
+
+        // then
+        assertThat(pricingMetrics.getRuleMetrics(travelCardHolderPromotionalRule)).isNull();
+        assertThat(pricingMetrics.getRuleMetrics()).isEmpty();
+    }
+}
@@ -0,0 +1,55 @@
+package my.project.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldCountLatencies() {
+        // given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+        // when
+        latencyHistogram.record(100);
+        latencyHistogram.record(300);
+        latencyHistogram.record(-5);
+
+        // then
+        assertThat(latencyHistogram.getCount()).isEqualTo(3);
+        assertThat(latencyHistogram.getTotalNanos()).isEqualTo(400);
+        assertThat(latencyHistogram.getMeanNanos()).isEqualTo(133);
+    }
+
+    @Test
+    public void shouldGiveUpperBoundOfBucketWithPercentile() {
+        // given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int index = 0; index < 99; index++) {
+            latencyHistogram.record(100);
+        }
+        latencyHistogram.record(5000);
+
+        // when & then
+        assertThat(latencyHistogram.getPercentileNanos(50)).isEqualTo(127);
+        assertThat(latencyHistogram.getPercentileNanos(99)).isEqualTo(127);
+        assertThat(latencyHistogram.getPercentileNanos(100)).isEqualTo(8191);
+    }
+
+    @Test
+    public void shouldGiveZeroWhenNothingWasRecorded() {
+        // given
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+        // when & then
+        assertThat(latencyHistogram.getMeanNanos()).isEqualTo(0);
+        assertThat(latencyHistogram.getPercentileNanos(99)).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenPercentileIsOutOfRange() {
+        // when & then
+        new LatencyHistogram().getPercentileNanos(101);
+    }
+}
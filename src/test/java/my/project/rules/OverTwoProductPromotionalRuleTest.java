@@ -1,6 +1,7 @@
 package my.project.rules;
 
 
+import my.project.Basket;
 import my.project.Product;
 import my.project.summary.BasketSummary;
 import org.junit.Test;
@@ -8,7 +9,6 @@ import org.junit.Test;
 import java.math.BigDecimal;
 import java.util.List;
 
-import static java.math.BigDecimal.ZERO;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 
@@ -22,28 +22,21 @@ public class OverTwoProductPromotionalRuleTest {
         // given
         BigDecimal newPrice = BigDecimal.valueOf(0.5);
         OverTwoProductPromotionalRule productPromotionalRule = new OverTwoProductPromotionalRule(product1.getCode(), newPrice);
-        List<BasketSummary.Item> items = List.of(
-                new BasketSummary.Item(product1),
-                new BasketSummary.Item(product2),
-                new BasketSummary.Item(product1),
-                new BasketSummary.Item(product2),
-                new BasketSummary.Item(product1)
-        );
-        BasketSummary basketSummary = new BasketSummary(items, ZERO);
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, product1, product2, product1));
 
         // when
         productPromotionalRule.applyPromotion(basketSummary);
 
         // then
-        assertThat(basketSummary.getDiscount()).isEqualTo(ZERO);
+        assertThat(basketSummary.getDiscount()).isEqualTo(0);
         assertThat(basketSummary.getItems())
                 .extracting("product", "discounted", "price")
                 .containsExactly(
-                        tuple(product1, true, newPrice),
-                        tuple(product2, false, product2.getPrice()),
-                        tuple(product1, true, newPrice),
-                        tuple(product2, false, product2.getPrice()),
-                        tuple(product1, true, newPrice)
+                        tuple(product1, true, 50L),
+                        tuple(product2, false, 200L),
+                        tuple(product1, true, 50L),
+                        tuple(product2, false, 200L),
+                        tuple(product1, true, 50L)
                 );
     }
 
@@ -51,30 +44,24 @@ public class OverTwoProductPromotionalRuleTest {
     public void shouldApplyPromotionalRuleOnlyToProductsWithHigherPrice() {
         // given
         BigDecimal newPrice = BigDecimal.valueOf(0.5);
-        BigDecimal smallerPrice = BigDecimal.valueOf(0.3);
         OverTwoProductPromotionalRule productPromotionalRule = new OverTwoProductPromotionalRule(product1.getCode(), newPrice);
-        List<BasketSummary.Item> items = List.of(
-                new BasketSummary.Item(product1, true, smallerPrice),
-                new BasketSummary.Item(product2),
-                new BasketSummary.Item(product1),
-                new BasketSummary.Item(product2),
-                new BasketSummary.Item(product1, true, smallerPrice)
-        );
-        BasketSummary basketSummary = new BasketSummary(items, ZERO);
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, product1, product2, product1));
+        basketSummary.discount(0, 30);
+        basketSummary.discount(4, 30);
 
         // when
         productPromotionalRule.applyPromotion(basketSummary);
 
         // then
-        assertThat(basketSummary.getDiscount()).isEqualTo(ZERO);
+        assertThat(basketSummary.getDiscount()).isEqualTo(0);
         assertThat(basketSummary.getItems())
                 .extracting("product", "discounted", "price")
                 .containsExactly(
-                        tuple(product1, true, smallerPrice),
-                        tuple(product2, false, product2.getPrice()),
-                        tuple(product1, true, newPrice),
-                        tuple(product2, false, product2.getPrice()),
-                        tuple(product1, true, smallerPrice)
+                        tuple(product1, true, 30L),
+                        tuple(product2, false, 200L),
+                        tuple(product1, true, 50L),
+                        tuple(product2, false, 200L),
+                        tuple(product1, true, 30L)
                 );
     }
 
@@ -83,33 +70,85 @@ public class OverTwoProductPromotionalRuleTest {
         // given
         BigDecimal newPrice = BigDecimal.valueOf(0.5);
         OverTwoProductPromotionalRule productPromotionalRule = new OverTwoProductPromotionalRule(product1.getCode(), newPrice);
-        List<BasketSummary.Item> items = List.of(
-                new BasketSummary.Item(product2),
-                new BasketSummary.Item(product1),
-                new BasketSummary.Item(product2)
-        );
-        BasketSummary basketSummary = new BasketSummary(items, ZERO);
+        BasketSummary basketSummary = new BasketSummary(List.of(product2, product1, product2));
 
         // when
         productPromotionalRule.applyPromotion(basketSummary);
 
         // then
-        assertThat(basketSummary.getDiscount()).isEqualTo(ZERO);
+        assertThat(basketSummary.getDiscount()).isEqualTo(0);
         assertThat(basketSummary.getItems())
                 .extracting("product", "discounted", "price")
                 .containsExactly(
-                        tuple(product2, false, product2.getPrice()),
-                        tuple(product1, false, product1.getPrice()),
-                        tuple(product2, false, product2.getPrice())
+                        tuple(product2, false, 200L),
+                        tuple(product1, false, 100L),
+                        tuple(product2, false, 200L)
                 );
     }
 
+    @Test
+    public void shouldApplyPromotionalRuleToSingleLineWithQuantity() {
+        // given
+        OverTwoProductPromotionalRule productPromotionalRule = new OverTwoProductPromotionalRule(product1.getCode(), BigDecimal.valueOf(0.5));
+        Basket basket = new Basket();
+        basket.add(product1, 3);
+        basket.add(product2, 1);
+        BasketSummary basketSummary = new BasketSummary(basket);
+
+        // when
+        productPromotionalRule.applyPromotion(basketSummary);
+
+        // then
+        assertThat(basketSummary.getItems())
+                .extracting("product", "quantity", "discounted", "price")
+                .containsExactly(
+                        tuple(product1, 3L, true, 50L),
+                        tuple(product2, 1L, false, 200L)
+                );
+        assertThat(basketSummary.totalPrice()).isEqualTo(3 * 50 + 200);
+    }
+
+    @Test
+    public void shouldWorkOnlyOnProductsWithPromotedCode() {
+        // given
+        OverTwoProductPromotionalRule productPromotionalRule = new OverTwoProductPromotionalRule(product1.getCode(), BigDecimal.valueOf(0.5));
+
+        // when & then
+        assertThat(productPromotionalRule.productCodes()).containsExactly(product1.getCode());
+    }
+
+    @Test
+    public void shouldRequireTwoProductsWithPromotedCode() {
+        // given
+        OverTwoProductPromotionalRule productPromotionalRule = new OverTwoProductPromotionalRule(product1.getCode(), BigDecimal.valueOf(0.5));
+
+        // when & then
+        assertThat(productPromotionalRule.minimumQuantity()).isEqualTo(2);
+        assertThat(productPromotionalRule.minimumTotalPrice()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldBeAffectedOnlyByProductsWithPromotedCode() {
+        // given
+        OverTwoProductPromotionalRule productPromotionalRule = new OverTwoProductPromotionalRule(product1.getCode(), BigDecimal.valueOf(0.5));
+
+        // when & then
+        assertThat(productPromotionalRule.isAffectedBy(product1)).isTrue();
+        assertThat(productPromotionalRule.isAffectedBy(product2)).isFalse();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void shouldThrowExceptionWhenNewPriceIsNegative() {
         // when & then
         new OverTwoProductPromotionalRule(product1.getCode(), BigDecimal.valueOf(-1));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenNewPriceIsNotExactInMinorUnits() {
+        // when & then
+        new OverTwoProductPromotionalRule(product1.getCode(), BigDecimal.valueOf(0.505));
+    }
+
     @Test(expected = NullPointerException.class)
     public void shouldThrowExceptionWhenNewPriceIsNull() {
         // when & then
@@ -8,7 +8,9 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.math.BigDecimal;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
@@ -22,9 +24,9 @@ public class PriceOverThresholdPromotionalRuleTest {
     public void shouldApplyPromotionWhenTotalValueIsOverThreshold() {
         // given
         PriceOverThresholdPromotionalRule promotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
-        given(basketSummary.totalPrice()).willReturn(BigDecimal.valueOf(123));
-        given(basketSummary.getDiscount()).willReturn(BigDecimal.valueOf(13));
-        BigDecimal expectedDiscount = BigDecimal.valueOf(123 * 0.1 + 13);
+        given(basketSummary.totalPrice()).willReturn(12300L);
+        given(basketSummary.getDiscount()).willReturn(1300L);
+        long expectedDiscount = 1230 + 1300;
 
         // when
         promotionalRule.applyPromotion(basketSummary);
@@ -33,17 +35,41 @@ public class PriceOverThresholdPromotionalRuleTest {
         verify(basketSummary).setDiscount(expectedDiscount);
     }
 
+    @Test
+    public void shouldRoundDiscountDownToMinorUnits() {
+        // given
+        PriceOverThresholdPromotionalRule promotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
+        given(basketSummary.totalPrice()).willReturn(8195L);
+        given(basketSummary.getDiscount()).willReturn(0L);
+
+        // when
+        promotionalRule.applyPromotion(basketSummary);
+
+        // then
+        verify(basketSummary).setDiscount(819);
+    }
+
     @Test
     public void shouldNotApplyPromotionWhenTotalValueIsBelowThreshold() {
         // given
         PriceOverThresholdPromotionalRule promotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
-        given(basketSummary.totalPrice()).willReturn(BigDecimal.valueOf(12));
+        given(basketSummary.totalPrice()).willReturn(1200L);
 
         // when
         promotionalRule.applyPromotion(basketSummary);
 
         // then
-        verify(basketSummary, never()).setDiscount(BigDecimal.valueOf(12.3));
+        verify(basketSummary, never()).setDiscount(anyLong());
+    }
+
+    @Test
+    public void shouldRequireTotalPriceOverThreshold() {
+        // given
+        PriceOverThresholdPromotionalRule promotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
+
+        // when & then
+        assertThat(promotionalRule.minimumTotalPrice()).isEqualTo(6001);
+        assertThat(promotionalRule.minimumQuantity()).isEqualTo(0);
     }
 
     @Test(expected = NullPointerException.class)
@@ -0,0 +1,207 @@
+package my.project.rules.compiled;
+
+import my.project.Checkout;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import my.project.audit.AuditRingBuffer;
+import my.project.metrics.PricingMetrics;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RuleFileCompilerTest {
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+    private final Product kidsShirt = new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95));
+
+    private final RuleFileCompiler ruleFileCompiler = new RuleFileCompiler();
+    private final BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldCompileRuleFile() throws IOException {
+        // given
+        Path ruleFile = temporaryFolder.newFile("rules.txt").toPath();
+        Files.write(ruleFile, List.of("# promotions", "multibuy 001 2 8.50", "", "threshold 60 10"));
+
+        // when
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(ruleFile);
+
+        // then
+        assertThat(promotionalRules).hasSize(2);
+        assertThat(total(promotionalRules, travelCardHolder, cufflinks, kidsShirt)).isEqualTo(66.78);
+        assertThat(total(promotionalRules, travelCardHolder, kidsShirt, travelCardHolder)).isEqualTo(36.95);
+        assertThat(total(promotionalRules, travelCardHolder, travelCardHolder, cufflinks, kidsShirt)).isEqualTo(73.76);
+    }
+
+    @Test
+    public void shouldCompileRulesOfTheSameKindIntoOneRule() {
+        // when
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of(
+                "multibuy 001 2 8.50", "multibuy 002 3 40", "threshold 60 10", "threshold 100 5"));
+
+        // then
+        assertThat(promotionalRules).hasSize(2);
+        assertThat(promotionalRules.get(0).productCodes()).containsOnly("001", "002");
+        assertThat(promotionalRules.get(0).minimumQuantity()).isEqualTo(2);
+        assertThat(promotionalRules.get(1).minimumTotalPrice()).isEqualTo(6001);
+    }
+
+    @Test
+    public void shouldApplyMultiBuyOnlyFromRequiredQuantity() {
+        // given
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of("multibuy 002 3 40"));
+
+        // when & then
+        assertThat(total(promotionalRules, cufflinks, cufflinks)).isEqualTo(90);
+        assertThat(total(promotionalRules, cufflinks, kidsShirt, cufflinks, cufflinks)).isEqualTo(139.95);
+    }
+
+    @Test
+    public void shouldApplyThresholdsInOrderOfFile() {
+        // given
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of("threshold 60 10", "threshold 50 10"));
+
+        // when & then
+        // 99.25 - 9.92 = 89.33, 89.33 - 8.93 = 80.40
+        assertThat(total(promotionalRules, cufflinks, cufflinks, travelCardHolder)).isEqualTo(80.4);
+    }
+
+    @Test
+    public void shouldApplyBundleToEveryCompleteSet() {
+        // given
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of("bundle 50 002 003"));
+
+        // when & then
+        assertThat(total(promotionalRules, cufflinks, kidsShirt)).isEqualTo(50);
+        assertThat(total(promotionalRules, cufflinks, kidsShirt, cufflinks, kidsShirt, cufflinks)).isEqualTo(145);
+        assertThat(total(promotionalRules, cufflinks, travelCardHolder)).isEqualTo(54.25);
+    }
+
+    @Test
+    public void shouldUseUnitOfProductInOneBundleOnly() {
+        // given
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of("bundle 50 002 003", "bundle 10 001 003"));
+
+        // when & then
+        assertThat(total(promotionalRules, cufflinks, kidsShirt, travelCardHolder)).isEqualTo(59.25);
+        assertThat(total(promotionalRules, cufflinks, kidsShirt, travelCardHolder, kidsShirt)).isEqualTo(60);
+    }
+
+    @Test
+    public void shouldPriceBundleWithUnitsItUses() {
+        // given
+        Product cheaperKidsShirt = new Product("003", " Kids T-shirt", BigDecimal.valueOf(15));
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of("bundle 50 002 003"));
+
+        // when & then
+        // 45 + 19.95 + 45 + 15 = 124.95 for two bundles
+        assertThat(total(promotionalRules, cufflinks, kidsShirt, cufflinks, cheaperKidsShirt)).isEqualTo(100);
+        assertThat(total(promotionalRules, cheaperKidsShirt, cufflinks, kidsShirt)).isEqualTo(69.95);
+    }
+
+    @Test
+    public void shouldApplyOnlyBundlesOfProductsInBasket() {
+        // given
+        List<String> lines = new ArrayList<>();
+        for (int bundle = 0; bundle < 1000; bundle++) {
+            lines.add("bundle 1 x" + bundle + " y" + bundle);
+        }
+        lines.add("bundle 50 002 003");
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(lines);
+
+        // when & then
+        assertThat(total(promotionalRules, kidsShirt, travelCardHolder, cufflinks)).isEqualTo(59.25);
+    }
+
+    @Test
+    public void shouldNotApplyBundleMoreExpensiveThanItsProducts() {
+        // given
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of("bundle 30 001 003"));
+
+        // when & then
+        assertThat(total(promotionalRules, travelCardHolder, kidsShirt)).isEqualTo(29.2);
+    }
+
+    @Test
+    public void shouldApplyAllKindsOfRulesTogether() {
+        // given
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of(
+                "threshold 60 10", "bundle 50 002 003", "multibuy 001 2 8.50"));
+
+        // when & then
+        // 2 x 8.50 + 50 = 67, 67 - 6.70 = 60.30
+        assertThat(total(promotionalRules, travelCardHolder, travelCardHolder, cufflinks, kidsShirt)).isEqualTo(60.3);
+    }
+
+    @Test
+    public void shouldAuditDiscountsWithLinesOfRuleFile() {
+        // given
+        List<PromotionalRule> promotionalRules = ruleFileCompiler.compile(List.of(
+                "# promotions", "multibuy 001 2 8.50", "bundle 50 002 003", "threshold 60 10"));
+        AuditRingBuffer auditRingBuffer = new AuditRingBuffer(16);
+        BasketSummaryFactory auditedBasketSummaryFactory = new BasketSummaryFactory(PricingMetrics.NONE, auditRingBuffer);
+        List<String> records = new ArrayList<>();
+
+        // when
+        auditedBasketSummaryFactory.createBasketSummary(List.of(travelCardHolder, travelCardHolder, cufflinks, kidsShirt),
+                promotionalRules);
+        auditRingBuffer.drain(auditRecord -> records.add(auditRecord.getPromotionId() + "," + auditRecord.getLine() + ","
+                + auditRecord.getAmount()));
+
+        // then
+        assertThat(records).containsExactly("2,0,150", "3,-1,1495", "4,-1,670");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenQuantityIsNotPositive() {
+        // when & then
+        ruleFileCompiler.compile(List.of("# promotions", "multibuy 001 2 8.50", "multibuy 001 0 8.50"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenRuleIsUnknown() {
+        // when & then
+        ruleFileCompiler.compile(List.of("discount 001 10"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenPercentsAreMalformed() {
+        // when & then
+        ruleFileCompiler.compile(List.of("threshold 60 ten"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenBundleRepeatsCode() {
+        // when & then
+        ruleFileCompiler.compile(List.of("bundle 50 002 002"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenPriceIsNotExactInMinorUnits() {
+        // when & then
+        ruleFileCompiler.compile(List.of("multibuy 001 2 8.505"));
+    }
+
+    private double total(List<PromotionalRule> promotionalRules, Product... products) {
+        Checkout checkout = new Checkout(PromotionPlan.compile(promotionalRules), basketSummaryFactory);
+        for (Product product : products) {
+            checkout.scan(product);
+        }
+        return checkout.total();
+    }
+}
@@ -0,0 +1,57 @@
+package my.project.simulation;
+
+import my.project.Basket;
+import my.project.Product;
+import my.project.catalog.InMemoryProductCatalog;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BasketCorpusTest {
+
+    private final Product product1 = new Product("1", "product 1", BigDecimal.valueOf(1));
+    private final Product product2 = new Product("2", "product 2", BigDecimal.valueOf(2));
+
+    private final InMemoryProductCatalog productCatalog = new InMemoryProductCatalog(List.of(product1, product2));
+
+    @Test
+    public void shouldStoreAndReadBaskets() {
+        // given
+        BasketCorpus basketCorpus = new BasketCorpus(productCatalog);
+        Basket basket = new Basket();
+
+        // when
+        for (int index = 0; index < 100; index++) {
+            basketCorpus.add(List.of(product1, product1, product2));
+            basketCorpus.add(List.of());
+        }
+
+        // then
+        assertThat(basketCorpus.size()).isEqualTo(200);
+        basketCorpus.readBasket(98, basket);
+        assertThat(basket).isEqualTo(Basket.of(List.of(product1, product1, product2)));
+        basketCorpus.readBasket(199, basket);
+        assertThat(basket).isEqualTo(new Basket());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenProductIsNotInCatalog() {
+        // when & then
+        new BasketCorpus(productCatalog).add(List.of(new Product("3", "product 3", BigDecimal.valueOf(3))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenProductIsDifferentInCatalog() {
+        // when & then
+        new BasketCorpus(productCatalog).add(List.of(new Product("1", "product 1", BigDecimal.valueOf(5))));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldThrowExceptionWhenBasketDoesNotExist() {
+        // when & then
+        new BasketCorpus(productCatalog).readBasket(0, new Basket());
+    }
+}
@@ -0,0 +1,91 @@
+package my.project.simulation;
+
+import my.project.Checkout;
+import my.project.Money;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import my.project.catalog.InMemoryProductCatalog;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import my.project.summary.BasketSummaryFactory;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class PromotionSimulatorTest {
+
+    private final Product travelCardHolder = new Product("001", "Travel Card Holder", BigDecimal.valueOf(9.25));
+    private final Product cufflinks = new Product("002", "Personalised cufflinks", BigDecimal.valueOf(45));
+    private final Product kidsShirt = new Product("003", " Kids T-shirt", BigDecimal.valueOf(19.95));
+
+    private final PromotionalRule priceOver60PromotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(60), 10);
+    private final PromotionalRule travelCardHolderPromotionalRule = new OverTwoProductPromotionalRule("001", BigDecimal.valueOf(8.50));
+    private final PromotionalRule priceOver50PromotionalRule = new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(50), 5);
+
+    private final List<List<Product>> baskets = List.of(
+            List.of(travelCardHolder, cufflinks, kidsShirt),
+            List.of(travelCardHolder, kidsShirt, travelCardHolder),
+            List.of(travelCardHolder, travelCardHolder, cufflinks, kidsShirt),
+            List.of(kidsShirt));
+
+    private final PromotionSimulator promotionSimulator = new PromotionSimulator();
+
+    @Test
+    public void shouldSimulateEveryPlanOverAllBaskets() {
+        // given
+        BasketCorpus basketCorpus = new BasketCorpus(new InMemoryProductCatalog(List.of(travelCardHolder, cufflinks, kidsShirt)));
+        baskets.forEach(basketCorpus::add);
+        PromotionPlan currentPlan = PromotionPlan.compile(List.of(priceOver60PromotionalRule, travelCardHolderPromotionalRule));
+        PromotionPlan candidatePlan = PromotionPlan.compile(List.of(priceOver50PromotionalRule));
+
+        // when
+        List<SimulationResult> simulationResults = promotionSimulator.simulate(basketCorpus, List.of(currentPlan, candidatePlan));
+
+        // then
+        SimulationResult currentResult = simulationResults.get(0);
+        assertThat(currentResult.getNumberOfBaskets()).isEqualTo(4);
+        assertThat(currentResult.getGrossRevenue()).isEqualTo(7420 + 3845 + 8345 + 1995);
+        assertThat(currentResult.getRevenue()).isEqualTo(6678 + 3695 + 7376 + 1995);
+        assertThat(currentResult.getRevenue()).isEqualTo(totalOfCheckouts(currentPlan));
+        assertThat(currentResult.getDiscountSpend()).isEqualTo(742 + 150 + 969);
+        assertThat(currentResult.getRuleResults())
+                .extracting("promotionalRule", "numberOfHits", "hitRate", "discount")
+                .containsExactly(
+                        tuple(travelCardHolderPromotionalRule, 2L, 0.5, 300L),
+                        tuple(priceOver60PromotionalRule, 2L, 0.5, 742L + 819L)
+                );
+        SimulationResult candidateResult = simulationResults.get(1);
+        assertThat(candidateResult.getRevenue()).isEqualTo(totalOfCheckouts(candidatePlan));
+        assertThat(candidateResult.getRuleResults())
+                .extracting("numberOfHits")
+                .containsExactly(2L);
+    }
+
+    @Test
+    public void shouldSimulateEmptyCorpus() {
+        // given
+        BasketCorpus basketCorpus = new BasketCorpus(new InMemoryProductCatalog(List.of(travelCardHolder)));
+
+        // when
+        List<SimulationResult> simulationResults = promotionSimulator.simulate(basketCorpus, List.of(PromotionPlan.compile(List.of(priceOver60PromotionalRule))));
+
+        // then
+        assertThat(simulationResults.get(0).getRevenue()).isEqualTo(0);
+        assertThat(simulationResults.get(0).getRuleResults().get(0).getHitRate()).isEqualTo(0);
+    }
+
+    private long totalOfCheckouts(PromotionPlan promotionPlan) {
+        long total = 0;
+        for (List<Product> basket : baskets) {
+            Checkout checkout = new Checkout(promotionPlan, new BasketSummaryFactory());
+            basket.forEach(checkout::scan);
+            total += Money.of(BigDecimal.valueOf(checkout.total()));
+        }
+        return total;
+    }
+}
@@ -1,21 +1,34 @@
 package my.project.summary;
 
+import my.project.Basket;
 import my.project.Product;
+import my.project.PromotionPlan;
 import my.project.PromotionalRule;
+import my.project.audit.AuditRecord;
+import my.project.audit.PricingAudit;
+import my.project.metrics.PricingMetrics;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
-import static java.math.BigDecimal.ZERO;
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -27,6 +40,12 @@ public class BasketSummaryFactoryTest {
     @Mock
     private PromotionalRule promotionalRule1, promotionalRule2;
 
+    @Mock
+    private PricingMetrics pricingMetrics;
+
+    @Mock
+    private PricingAudit pricingAudit;
+
     private final BasketSummaryFactory basketSummaryFactory = new BasketSummaryFactory();
 
     @Test
@@ -34,11 +53,7 @@ public class BasketSummaryFactoryTest {
         // given
         List<Product> products = List.of(product1, product2);
         List<PromotionalRule> rules = List.of(promotionalRule1, promotionalRule2);
-        List<BasketSummary.Item> expectedItems = List.of(
-                new BasketSummary.Item(product1, false, product1.getPrice()),
-                new BasketSummary.Item(product2, false, product2.getPrice())
-        );
-        BasketSummary expectedBasketSummary = new BasketSummary(expectedItems, ZERO);
+        BasketSummary expectedBasketSummary = new BasketSummary(List.of(product1, product2));
 
         // when
         BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, rules);
@@ -71,21 +86,224 @@ public class BasketSummaryFactoryTest {
         BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, rules);
 
         // then
-        assertThat(basketSummary.getDiscount()).isEqualTo(BigDecimal.valueOf(expectedDiscount));
+        assertThat(basketSummary.getDiscount()).isEqualTo(expectedDiscount);
+
+        verify(promotionalRule1).applyPromotion(basketSummary);
+        verify(promotionalRule2).applyPromotion(basketSummary);
+    }
+
+    @Test
+    public void shouldSkipRulesWithoutTheirProductsInBasket() {
+        // given
+        List<Product> products = List.of(product1, product1);
+        List<PromotionalRule> rules = List.of(promotionalRule1, promotionalRule2);
+        given(promotionalRule1.productCodes()).willReturn(Set.of(product1.getCode()));
+        given(promotionalRule2.productCodes()).willReturn(Set.of(product2.getCode()));
+
+        // when
+        BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, rules);
+
+        // then
+        verify(promotionalRule1).applyPromotion(basketSummary);
+        verify(promotionalRule2, never()).applyPromotion(any());
+    }
+
+    @Test
+    public void shouldSkipRulesRequiringHigherQuantityOfTheirProducts() {
+        // given
+        List<Product> products = List.of(product1, product2, product2);
+        List<PromotionalRule> rules = List.of(promotionalRule1, promotionalRule2);
+        given(promotionalRule1.productCodes()).willReturn(Set.of(product1.getCode()));
+        given(promotionalRule1.minimumQuantity()).willReturn(2L);
+        given(promotionalRule2.minimumQuantity()).willReturn(3L);
+
+        // when
+        BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, rules);
+
+        // then
+        verify(promotionalRule1, never()).applyPromotion(any());
+        verify(promotionalRule2).applyPromotion(basketSummary);
+    }
+
+    @Test
+    public void shouldSkipRulesRequiringHigherTotalPrice() {
+        // given
+        List<Product> products = List.of(product1, product2);
+        given(promotionalRule1.priority()).willReturn(0);
+        given(promotionalRule2.priority()).willReturn(1);
+        given(promotionalRule2.minimumTotalPrice()).willReturn(300L);
+        setDiscountWhenCalled(promotionalRule1, 1);
 
+        // when
+        BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, List.of(promotionalRule1, promotionalRule2));
+
+        // then - total price is lowered by the first rule
+        verify(promotionalRule1).applyPromotion(basketSummary);
+        verify(promotionalRule2, never()).applyPromotion(any());
+    }
+
+    @Test
+    public void shouldApplyRulesWithTheirRequirementsMet() {
+        // given
+        List<Product> products = List.of(product1, product2);
+        given(promotionalRule1.productCodes()).willReturn(Set.of(product1.getCode(), product2.getCode()));
+        given(promotionalRule1.minimumQuantity()).willReturn(2L);
+        given(promotionalRule2.minimumTotalPrice()).willReturn(300L);
+
+        // when
+        BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, List.of(promotionalRule1, promotionalRule2));
+
+        // then
         verify(promotionalRule1).applyPromotion(basketSummary);
         verify(promotionalRule2).applyPromotion(basketSummary);
     }
 
+    @Test
+    public void shouldApplyRulesOfCompiledPromotionPlan() {
+        // given
+        List<Product> products = List.of(product1, product2);
+        given(promotionalRule1.priority()).willReturn(11);
+        given(promotionalRule2.priority()).willReturn(0);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+
+        // when
+        BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, promotionPlan);
+
+        // then
+        InOrder inOrder = inOrder(promotionalRule1, promotionalRule2);
+        inOrder.verify(promotionalRule2).applyPromotion(basketSummary);
+        inOrder.verify(promotionalRule1).applyPromotion(basketSummary);
+    }
+
+    @Test
+    public void shouldApplyPromotionsToGivenBasketSummary() {
+        // given
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2));
+        setDiscountWhenCalled(promotionalRule1, 1);
+
+        // when
+        basketSummaryFactory.applyPromotions(basketSummary, PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2)));
+
+        // then
+        assertThat(basketSummary.getDiscount()).isEqualTo(1);
+        verify(promotionalRule2).applyPromotion(basketSummary);
+    }
+
+    @Test
+    public void shouldCheckRulesWithMoreCodesThanBasketByCodesOfBasket() {
+        // given
+        Set<String> productCodes = new HashSet<>(Set.of(product1.getCode()));
+        for (int code = 0; code < 1000; code++) {
+            productCodes.add("x" + code);
+        }
+        given(pricingMetrics.isEnabled()).willReturn(true);
+        given(promotionalRule1.productCodes()).willReturn(productCodes);
+        given(promotionalRule1.minimumQuantity()).willReturn(2L);
+        given(promotionalRule2.productCodes()).willReturn(productCodes);
+        given(promotionalRule2.minimumQuantity()).willReturn(3L);
+        BasketSummaryFactory measuredBasketSummaryFactory = new BasketSummaryFactory(pricingMetrics);
+
+        // when
+        BasketSummary basketSummary = measuredBasketSummaryFactory.createBasketSummary(List.of(product1, product2, product1),
+                List.of(promotionalRule1, promotionalRule2));
+
+        // then
+        verify(promotionalRule1).applyPromotion(basketSummary);
+        verify(promotionalRule2, never()).applyPromotion(any());
+        verify(pricingMetrics).recordRule(eq(promotionalRule1), anyLong(), eq(2), eq(0L));
+    }
+
+    @Test
+    public void shouldRecordMetricsOfAppliedRules() {
+        // given
+        given(pricingMetrics.isEnabled()).willReturn(true);
+        given(promotionalRule1.productCodes()).willReturn(Set.of(product1.getCode()));
+        setDiscountWhenCalled(promotionalRule2, 25);
+        BasketSummaryFactory measuredBasketSummaryFactory = new BasketSummaryFactory(pricingMetrics);
+
+        // when
+        measuredBasketSummaryFactory.createBasketSummary(List.of(product1, product2, product1), List.of(promotionalRule1, promotionalRule2));
+
+        // then
+        verify(pricingMetrics).recordRule(eq(promotionalRule1), anyLong(), eq(2), eq(0L));
+        verify(pricingMetrics).recordRule(eq(promotionalRule2), anyLong(), eq(3), eq(25L));
+    }
+
+    @Test
+    public void shouldNotRecordMetricsWhenTheyAreDisabled() {
+        // given
+        BasketSummaryFactory measuredBasketSummaryFactory = new BasketSummaryFactory(pricingMetrics);
+
+        // when
+        measuredBasketSummaryFactory.createBasketSummary(List.of(product1, product2), List.of(promotionalRule1, promotionalRule2));
+
+        // then
+        verify(pricingMetrics, never()).recordRule(any(PromotionalRule.class), anyLong(), anyInt(), anyLong());
+        verify(promotionalRule1).applyPromotion(any(BasketSummary.class));
+    }
+
+    @Test
+    public void shouldRecordDiscountsOfAppliedRulesToAudit() {
+        // given
+        given(pricingAudit.isEnabled()).willReturn(true);
+        given(pricingAudit.startBasket()).willReturn(7L);
+        willAnswer(a -> {
+            a.getArgumentAt(0, BasketSummary.class).setPromotionId(12);
+            a.getArgumentAt(0, BasketSummary.class).discount(0, 50);
+            return a;
+        }).given(promotionalRule1).applyPromotion(any());
+        setDiscountWhenCalled(promotionalRule2, 25);
+        given(promotionalRule2.priority()).willReturn(1);
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1, promotionalRule2));
+        BasketSummaryFactory auditedBasketSummaryFactory = new BasketSummaryFactory(PricingMetrics.NONE, pricingAudit);
+
+        // when
+        auditedBasketSummaryFactory.createBasketSummary(Basket.of(List.of(product1, product1, product2)), promotionPlan);
+
+        // then
+        verify(pricingAudit).record(7L, promotionPlan, 0, 12, 0, product1, 100L);
+        verify(pricingAudit).record(7L, promotionPlan, 1, AuditRecord.NO_PROMOTION_ID, AuditRecord.WHOLE_BASKET, null, 25L);
+        verify(pricingAudit, times(2)).record(anyLong(), any(PromotionPlan.class), anyInt(), anyInt(), anyInt(), any(Product.class),
+                anyLong());
+    }
+
+    @Test
+    public void shouldNotRecordDiscountsWhenAuditIsDisabled() {
+        // given
+        setDiscountWhenCalled(promotionalRule1, 25);
+        BasketSummaryFactory auditedBasketSummaryFactory = new BasketSummaryFactory(PricingMetrics.NONE, pricingAudit);
+
+        // when
+        auditedBasketSummaryFactory.createBasketSummary(List.of(product1, product2), List.of(promotionalRule1));
+
+        // then
+        verify(pricingAudit, never()).startBasket();
+        verify(pricingAudit, never()).record(anyLong(), any(PromotionPlan.class), anyInt(), anyInt(), anyInt(), any(Product.class),
+                anyLong());
+    }
+
+    @Test
+    public void shouldReuseBasketSummaryOfPricingContext() {
+        // given
+        PricingContext pricingContext = new PricingContext();
+        PromotionPlan promotionPlan = PromotionPlan.compile(List.of(promotionalRule1));
+        setDiscountWhenCalled(promotionalRule1, 1);
+
+        // when
+        BasketSummary basketSummary1 = basketSummaryFactory.createBasketSummary(Basket.of(List.of(product1, product2)), promotionPlan, pricingContext);
+        BasketSummary basketSummary2 = basketSummaryFactory.createBasketSummary(Basket.of(List.of(product2, product1, product1)), promotionPlan, pricingContext);
+
+        // then
+        assertThat(basketSummary2).isSameAs(basketSummary1);
+        assertThat(basketSummary2).isEqualTo(basketSummaryFactory.createBasketSummary(Basket.of(List.of(product2, product1, product1)), promotionPlan));
+        assertThat(basketSummary2.getDiscount()).isEqualTo(1);
+    }
+
     @Test
     public void shouldCreateBasketSummaryWithoutPromotionalRules() {
         // given
         List<Product> products = List.of(product1, product2);
-        List<BasketSummary.Item> expectedItems = List.of(
-                new BasketSummary.Item(product1, false, product1.getPrice()),
-                new BasketSummary.Item(product2, false, product2.getPrice())
-        );
-        BasketSummary expectedBasketSummary = new BasketSummary(expectedItems, ZERO);
+        BasketSummary expectedBasketSummary = new BasketSummary(List.of(product1, product2));
 
         // when
         BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(products, emptyList());
@@ -98,7 +316,7 @@ public class BasketSummaryFactoryTest {
     public void shouldCreateBasketSummaryWithoutProducts() {
         // given
         List<PromotionalRule> rules = List.of(promotionalRule1, promotionalRule2);
-        BasketSummary expectedBasketSummary = new BasketSummary(emptyList(), ZERO);
+        BasketSummary expectedBasketSummary = new BasketSummary(emptyList());
 
         // when
         BasketSummary basketSummary = basketSummaryFactory.createBasketSummary(emptyList(), rules);
@@ -125,12 +343,27 @@ public class BasketSummaryFactoryTest {
         List<Product> products = List.of(product1, product2);
 
         // when & then
-        basketSummaryFactory.createBasketSummary(products, null);
+        basketSummaryFactory.createBasketSummary(products, (List<PromotionalRule>) null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenPricingMetricsAreNull() {
+        // when & then
+        new BasketSummaryFactory(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldThrowExceptionWhenPromotionPlanIsNull() {
+        // given
+        List<Product> products = List.of(product1, product2);
+
+        // when & then
+        basketSummaryFactory.createBasketSummary(products, (PromotionPlan) null);
     }
 
     private void setDiscountWhenCalled(PromotionalRule promotionalRule, int discount) {
         willAnswer(a -> {
-            a.getArgumentAt(0, BasketSummary.class).setDiscount(BigDecimal.valueOf(discount));
+            a.getArgumentAt(0, BasketSummary.class).setDiscount(discount);
             return a;
         }).given(promotionalRule).applyPromotion(any());
     }
@@ -1,13 +1,14 @@
 package my.project.summary;
 
 
+import my.project.Basket;
 import my.project.Product;
+import my.project.audit.AuditRecord;
 import org.junit.Test;
 
 import java.math.BigDecimal;
 import java.util.List;
 
-import static java.math.BigDecimal.ZERO;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 
@@ -25,49 +26,277 @@ public class BasketSummaryTest {
         BasketSummary basketSummary = new BasketSummary(products);
 
         // then
-        assertThat(basketSummary.getDiscount()).isEqualTo(ZERO);
+        assertThat(basketSummary.getDiscount()).isEqualTo(0);
         assertThat(basketSummary.getItems())
                 .extracting("product", "discounted", "price")
                 .containsExactly(
-                        tuple(product1, false, product1.getPrice()),
-                        tuple(product2, false, product2.getPrice())
+                        tuple(product1, false, 100L),
+                        tuple(product2, false, 200L)
                 );
     }
 
+    @Test
+    public void shouldStoreEveryDistinctProductOnce() {
+        // given
+        List<Product> products = List.of(product1, product2, product1, product1);
+
+        // when
+        BasketSummary basketSummary = new BasketSummary(products);
+
+        // then
+        assertThat(basketSummary.size()).isEqualTo(3);
+        assertThat(basketSummary.getNumberOfDistinctProducts()).isEqualTo(2);
+        assertThat(basketSummary.getDistinctProduct(0)).isEqualTo(product1);
+        assertThat(basketSummary.getDistinctProduct(1)).isEqualTo(product2);
+        assertThat(List.of(basketSummary.getProductIndex(0), basketSummary.getProductIndex(1), basketSummary.getProductIndex(2)))
+                .containsExactly(0, 1, 0);
+        assertThat(basketSummary.getProduct(2)).isEqualTo(product1);
+    }
+
+    @Test
+    public void shouldStoreConsecutiveUnitsOfTheSameProductAsSingleLine() {
+        // given
+        List<Product> products = List.of(product1, product2, product2, product2, product1);
+
+        // when
+        BasketSummary basketSummary = new BasketSummary(products);
+
+        // then
+        assertThat(basketSummary.getItems())
+                .extracting("product", "quantity", "price")
+                .containsExactly(
+                        tuple(product1, 1L, 100L),
+                        tuple(product2, 3L, 200L),
+                        tuple(product1, 1L, 100L)
+                );
+        assertThat(basketSummary.countLines(product1.getCode())).isEqualTo(2);
+        assertThat(basketSummary.countQuantity(product2.getCode())).isEqualTo(3);
+        assertThat(basketSummary.countQuantity("unknown")).isEqualTo(0);
+        assertThat(basketSummary.getTotalQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldCreateBasketSummaryFromBasket() {
+        // given
+        Basket basket = new Basket();
+        basket.add(product1, 500);
+        basket.add(product2, 2);
+
+        // when
+        BasketSummary basketSummary = new BasketSummary(basket);
+
+        // then
+        assertThat(basketSummary).isNotEqualTo(new BasketSummary(List.of(product1, product2)));
+        assertThat(basketSummary.size()).isEqualTo(2);
+        assertThat(basketSummary.getQuantity(0)).isEqualTo(500);
+        assertThat(basketSummary.countQuantity(product1.getCode())).isEqualTo(500);
+        assertThat(basketSummary.totalPrice()).isEqualTo(500 * 100 + 2 * 200);
+    }
+
+    @Test
+    public void shouldGroupLinesByProductCode() {
+        // given
+        Product cheaperProduct1 = new Product(product1.getCode(), "cheaper product 1", BigDecimal.valueOf(0.5));
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, cheaperProduct1, product1));
+
+        // when & then
+        assertThat(basketSummary.getLines(product1.getCode())).containsExactly(0, 2, 3);
+        assertThat(basketSummary.getLines(product2.getCode())).containsExactly(1);
+        assertThat(basketSummary.getLines("unknown")).isEmpty();
+        assertThat(basketSummary.countLines(product1.getCode())).isEqualTo(3);
+        assertThat(basketSummary.countLines("unknown")).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldReadLinesOfCodeWithoutCopy() {
+        // given
+        Product cheaperProduct1 = new Product(product1.getCode(), "cheaper product 1", BigDecimal.valueOf(0.5));
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, cheaperProduct1));
+
+        // when
+        int codeIndex = basketSummary.indexOfCode(product1.getCode());
+
+        // then
+        assertThat(basketSummary.countLinesOfCode(codeIndex)).isEqualTo(2);
+        assertThat(basketSummary.getLineOfCode(codeIndex, 0)).isEqualTo(0);
+        assertThat(basketSummary.getLineOfCode(codeIndex, 1)).isEqualTo(2);
+        assertThat(basketSummary.indexOfCode("unknown")).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldListDistinctCodesWithTheirQuantities() {
+        // given
+        Product cheaperProduct1 = new Product(product1.getCode(), "cheaper product 1", BigDecimal.valueOf(0.5));
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, cheaperProduct1, product2));
+
+        // when
+        int codeIndex = basketSummary.indexOfCode(product2.getCode());
+
+        // then
+        assertThat(basketSummary.getNumberOfCodes()).isEqualTo(2);
+        assertThat(basketSummary.getCode(codeIndex)).isEqualTo(product2.getCode());
+        assertThat(basketSummary.getQuantityOfCode(codeIndex)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldIndexLinesByCodeAgainWhenResetToBiggerBasket() {
+        // given
+        Product product3 = new Product("3", "product 3", BigDecimal.valueOf(3));
+        BasketSummary basketSummary = new BasketSummary(List.of(product1));
+        basketSummary.getLines(product1.getCode());
+
+        // when
+        basketSummary.reset(List.of(product2, product1, product3, product2, product3, product1, product3));
+
+        // then
+        assertThat(basketSummary.getLines(product1.getCode())).containsExactly(1, 5);
+        assertThat(basketSummary.getLines(product2.getCode())).containsExactly(0, 3);
+        assertThat(basketSummary.getLines(product3.getCode())).containsExactly(2, 4, 6);
+        assertThat(basketSummary.countQuantity(product3.getCode())).isEqualTo(3);
+
+        // when
+        basketSummary.reset(List.of(product3));
+
+        // then
+        assertThat(basketSummary.getLines(product3.getCode())).containsExactly(0);
+        assertThat(basketSummary.getLines(product1.getCode())).isEmpty();
+        assertThat(basketSummary.countQuantity(product3.getCode())).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReplaceLinesAndDiscountsWhenReset() {
+        // given
+        Product product3 = new Product("3", "product 3", BigDecimal.valueOf(3));
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2));
+        basketSummary.discount(0, 50);
+        basketSummary.setDiscount(10);
+        basketSummary.getLines(product1.getCode());
+
+        // when
+        basketSummary.reset(List.of(product3, product2, product3));
+
+        // then
+        assertThat(basketSummary).isEqualTo(new BasketSummary(List.of(product3, product2, product3)));
+        assertThat(basketSummary.getNumberOfDistinctProducts()).isEqualTo(2);
+        assertThat(basketSummary.getLines(product1.getCode())).isEmpty();
+        assertThat(basketSummary.getLines(product3.getCode())).containsExactly(0, 2);
+        assertThat(basketSummary.totalPrice()).isEqualTo(800);
+
+        // when
+        Basket basket = new Basket();
+        basket.add(product2, 4);
+        basketSummary.reset(basket);
+
+        // then
+        assertThat(basketSummary).isEqualTo(new BasketSummary(basket));
+        assertThat(basketSummary.getLines(product3.getCode())).isEmpty();
+        assertThat(basketSummary.getTotalQuantity()).isEqualTo(4);
+        assertThat(basketSummary.totalPrice()).isEqualTo(800);
+
+        // when
+        basketSummary.reset(List.of(product1));
+
+        // then
+        assertThat(basketSummary).isEqualTo(new BasketSummary(List.of(product1)));
+        assertThat(basketSummary.getItems()).hasSize(1);
+        assertThat(basketSummary.totalPrice()).isEqualTo(100);
+    }
+
     @Test
     public void shouldCalculateTotalPrice() {
         // given
-        List<BasketSummary.Item> items = List.of(
-                new BasketSummary.Item(product1, false, product1.getPrice()),
-                new BasketSummary.Item(product2, false, product2.getPrice()),
-                new BasketSummary.Item(product1, true, BigDecimal.valueOf(0.5))
-        );
-        BasketSummary basketSummary = new BasketSummary(items, BigDecimal.valueOf(1.25));
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, product1, product1));
+        basketSummary.discount(2, 50);
+        basketSummary.setDiscount(125);
 
         // when
-        BigDecimal totalPrice = basketSummary.totalPrice();
+        long totalPrice = basketSummary.totalPrice();
 
         // then
-        assertThat(totalPrice).isEqualTo(BigDecimal.valueOf(1 + 2 + 0.5 - 1.25));
+        assertThat(totalPrice).isEqualTo(100 + 200 + 2 * 50 - 125);
+    }
+
+    @Test
+    public void shouldKeepTotalPriceUpToDateWhenLinesAreDiscounted() {
+        // given
+        Basket basket = new Basket();
+        basket.add(product1, 3);
+        basket.add(product2, 2);
+        BasketSummary basketSummary = new BasketSummary(basket);
+
+        // when
+        basketSummary.discount(0, 80);
+        basketSummary.getItems().get(0).discount(60);
+        basketSummary.getItems().get(1).discount(200);
+        basketSummary.setDiscount(15);
+
+        // then
+        long expectedTotalPrice = -basketSummary.getDiscount();
+        for (BasketSummary.Item item : basketSummary.getItems()) {
+            expectedTotalPrice += item.getPrice() * item.getQuantity();
+        }
+        assertThat(basketSummary.totalPrice()).isEqualTo(expectedTotalPrice).isEqualTo(3 * 60 + 2 * 200 - 15);
+
+        // when
+        basketSummary.reset(List.of(product2));
+
+        // then
+        assertThat(basketSummary.totalPrice()).isEqualTo(200);
+    }
+
+    @Test
+    public void shouldRestorePricesWhenDiscountsAreCleared() {
+        // given
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product1, product2));
+        basketSummary.discount(0, 50);
+        basketSummary.discount(1, 150);
+        basketSummary.setDiscount(10);
+
+        // when
+        basketSummary.clearDiscounts();
+
+        // then
+        assertThat(basketSummary).isEqualTo(new BasketSummary(List.of(product1, product1, product2)));
+        assertThat(basketSummary.totalPrice()).isEqualTo(2 * 100 + 200);
+        assertThat(basketSummary.getLines(product1.getCode())).containsExactly(0);
     }
 
     @Test
     public void shouldSetNewPriceOfItem() {
         // given
-        BasketSummary.Item item = new BasketSummary.Item(product1, false, product1.getPrice());
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2));
+        BasketSummary.Item item = basketSummary.getItems().get(0);
 
         // when
-        item.discount(BigDecimal.valueOf(0.5));
+        item.discount(50);
 
         // then
-        assertThat(item.getPrice()).isEqualTo(BigDecimal.valueOf(0.5));
+        assertThat(item.getPrice()).isEqualTo(50);
         assertThat(item.isDiscounted()).isTrue();
+        assertThat(basketSummary.getPrice(0)).isEqualTo(50);
+        assertThat(basketSummary.isDiscounted(0)).isTrue();
+        assertThat(basketSummary.isDiscounted(1)).isFalse();
+    }
+
+    @Test
+    public void shouldBeEqualToSummaryOfTheSameProductsAndDiscounts() {
+        // given
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2));
+        BasketSummary otherBasketSummary = new BasketSummary(List.of(product1, product2));
+
+        // when
+        otherBasketSummary.discount(1, 150);
+
+        // then
+        assertThat(basketSummary).isNotEqualTo(otherBasketSummary);
+        basketSummary.discount(1, 150);
+        assertThat(basketSummary).isEqualTo(otherBasketSummary);
     }
 
     @Test(expected = NullPointerException.class)
     public void shouldThrowExceptionWhenProductsAreNull() {
         // when & then
-        new BasketSummary(null);
+        new BasketSummary((List<Product>) null);
     }
 
     @Test(expected = NullPointerException.class)
@@ -76,22 +305,63 @@ public class BasketSummaryTest {
         new BasketSummary(List.of(product1, null, product2));
     }
 
-    @Test(expected = NullPointerException.class)
-    public void shouldThrowExceptionWhenNewPriceIsNull() {
+    @Test
+    public void shouldRecordChangesWithPromotionIds() {
         // given
-        BasketSummary.Item item = new BasketSummary.Item(product1, false, product1.getPrice());
+        BasketSummary basketSummary = new BasketSummary(List.of(product1, product2, product2));
+        basketSummary.discount(0, 90);
 
-        // when & then
-        item.discount(null);
+        // when
+        basketSummary.startRecordingChanges();
+        basketSummary.discount(1, 150);
+        basketSummary.setPromotionId(7);
+        basketSummary.setDiscount(25);
+
+        // then
+        assertThat(basketSummary.getNumberOfChanges()).isEqualTo(2);
+        assertThat(basketSummary.getChangedLine(0)).isEqualTo(1);
+        assertThat(basketSummary.getChangePromotionId(0)).isEqualTo(AuditRecord.NO_PROMOTION_ID);
+        assertThat(basketSummary.getChangeAmount(0)).isEqualTo(100);
+        assertThat(basketSummary.getChangedLine(1)).isEqualTo(AuditRecord.WHOLE_BASKET);
+        assertThat(basketSummary.getChangePromotionId(1)).isEqualTo(7);
+        assertThat(basketSummary.getChangeAmount(1)).isEqualTo(25);
+
+        // when
+        basketSummary.reset(List.of(product1));
+        basketSummary.discount(0, 90);
+
+        // then
+        assertThat(basketSummary.getNumberOfChanges()).isEqualTo(0);
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void shouldThrowExceptionWhenNewPriceIsNegative() {
         // given
-        BasketSummary.Item item = new BasketSummary.Item(product1, false, product1.getPrice());
+        BasketSummary.Item item = new BasketSummary(List.of(product1)).getItems().get(0);
 
         // when & then
-        item.discount(BigDecimal.valueOf(-1));
+        item.discount(-1);
     }
 
-}
\ No newline at end of file
+    @Test(expected = ArithmeticException.class)
+    public void shouldThrowExceptionWhenSubtotalOverflows() {
+        // given
+        Basket basket = new Basket();
+        basket.add(product1, Long.MAX_VALUE / 100);
+        basket.add(product2, Long.MAX_VALUE / 200);
+
+        // when & then
+        new BasketSummary(basket);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldThrowExceptionWhenDiscountOfLineOverflows() {
+        // given
+        Basket basket = new Basket();
+        basket.add(product1, Long.MAX_VALUE / 100);
+        BasketSummary basketSummary = new BasketSummary(basket);
+
+        // when & then
+        basketSummary.discount(0, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,98 @@
+package my.project.summary;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenAddressingIndexTest {
+
+    @Test
+    public void shouldGiveKeysIndexesInOrderTheyWereAdded() {
+        // given
+        OpenAddressingIndex<String> index = new OpenAddressingIndex<>();
+
+        // when
+        int index1 = index.add("001");
+        int index2 = index.add("002");
+        int index3 = index.add("001");
+
+        // then
+        assertThat(index1).isEqualTo(0);
+        assertThat(index2).isEqualTo(1);
+        assertThat(index3).isEqualTo(0);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.get(1)).isEqualTo("002");
+        assertThat(index.indexOf("002")).isEqualTo(1);
+        assertThat(index.indexOf("003")).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldFindAllKeysAfterGrowing() {
+        // given
+        OpenAddressingIndex<String> index = new OpenAddressingIndex<>();
+
+        // when
+        for (int key = 0; key < 1000; key++) {
+            index.add(Integer.toString(key));
+        }
+
+        // then
+        assertThat(index.size()).isEqualTo(1000);
+        for (int key = 0; key < 1000; key++) {
+            assertThat(index.indexOf(Integer.toString(key))).isEqualTo(key);
+        }
+    }
+
+    @Test
+    public void shouldFindKeysWithTheSameHash() {
+        // given
+        OpenAddressingIndex<String> index = new OpenAddressingIndex<>();
+
+        // when
+        // "Aa" and "BB" have the same hash code
+        index.add("Aa");
+        index.add("BB");
+
+        // then
+        assertThat(index.indexOf("Aa")).isEqualTo(0);
+        assertThat(index.indexOf("BB")).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldForgetKeysWhenCleared() {
+        // given
+        OpenAddressingIndex<String> index = new OpenAddressingIndex<>();
+        index.add("001");
+        index.add("002");
+
+        // when
+        index.clear();
+        int newIndex = index.add("002");
+
+        // then
+        assertThat(index.indexOf("001")).isEqualTo(-1);
+        assertThat(newIndex).isEqualTo(0);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldFindKeysAddedAfterClearingManyKeys() {
+        // given
+        OpenAddressingIndex<String> index = new OpenAddressingIndex<>();
+        for (int key = 0; key < 1000; key++) {
+            index.add(Integer.toString(key));
+        }
+
+        // when
+        index.clear();
+        index.add("Aa");
+        index.add("BB");
+
+        // then
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.indexOf("BB")).isEqualTo(1);
+        for (int key = 0; key < 1000; key++) {
+            assertThat(index.indexOf(Integer.toString(key))).isEqualTo(-1);
+        }
+    }
+}
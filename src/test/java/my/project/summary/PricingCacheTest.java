@@ -0,0 +1,159 @@
+package my.project.summary;
+
+import my.project.Basket;
+import my.project.Product;
+import my.project.PromotionPlan;
+import my.project.PromotionalRule;
+import my.project.rules.OverTwoProductPromotionalRule;
+import my.project.rules.PriceOverThresholdPromotionalRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PricingCacheTest {
+
+    private final Product product1 = new Product("1", "product 1", BigDecimal.valueOf(1));
+    private final Product product2 = new Product("2", "product 2", BigDecimal.valueOf(2));
+    private final Product product3 = new Product("3", "product 3", BigDecimal.valueOf(3));
+
+    private final List<PromotionalRule> promotionalRules = List.of(
+            new PriceOverThresholdPromotionalRule(BigDecimal.valueOf(4), 10),
+            new OverTwoProductPromotionalRule("1", BigDecimal.valueOf(0.5)));
+
+    @Mock
+    private BasketSummary basketSummary;
+
+    @Mock
+    private BasketSummaryFactory basketSummaryFactory;
+
+    @Test
+    public void shouldPriceBasketLikeFactory() {
+        // given
+        BasketSummaryFactory realBasketSummaryFactory = new BasketSummaryFactory();
+        PricingCache pricingCache = new PricingCache(realBasketSummaryFactory, 10);
+        PromotionPlan promotionPlan = PromotionPlan.compile(promotionalRules);
+        Basket basket = Basket.of(List.of(product1, product2, product1, product3));
+
+        // when
+        long totalPrice = pricingCache.totalPrice(basket, promotionPlan);
+
+        // then
+        assertThat(totalPrice).isEqualTo(realBasketSummaryFactory.createBasketSummary(basket, promotionPlan).totalPrice());
+    }
+
+    @Test
+    public void shouldPriceBasketsWithTheSameProductsOnce() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(500L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class))).willReturn(basketSummary);
+        PricingCache pricingCache = new PricingCache(basketSummaryFactory, 10);
+        PromotionPlan promotionPlan = PromotionPlan.compile(promotionalRules);
+        Basket basket = new Basket();
+        basket.add(product2, 1);
+        basket.add(product1, 2);
+        basket.add(product3, 1);
+
+        // when
+        long totalPrice1 = pricingCache.totalPrice(Basket.of(List.of(product1, product2, product1, product3)), promotionPlan);
+        long totalPrice2 = pricingCache.totalPrice(basket, promotionPlan);
+
+        // then
+        assertThat(totalPrice1).isEqualTo(500);
+        assertThat(totalPrice2).isEqualTo(500);
+        assertThat(pricingCache.getMisses()).isEqualTo(1);
+        assertThat(pricingCache.getHits()).isEqualTo(1);
+        verify(basketSummaryFactory, times(1)).createBasketSummary(any(Basket.class), any(PromotionPlan.class));
+    }
+
+    @Test
+    public void shouldNotUseTotalsOfOtherPromotionPlan() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(500L, 400L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class))).willReturn(basketSummary);
+        PricingCache pricingCache = new PricingCache(basketSummaryFactory, 10);
+        Basket basket = Basket.of(List.of(product1, product2));
+        pricingCache.totalPrice(basket, PromotionPlan.compile(promotionalRules));
+
+        // when
+        long totalPrice = pricingCache.totalPrice(basket, PromotionPlan.compile(promotionalRules.subList(0, 1)));
+
+        // then
+        assertThat(totalPrice).isEqualTo(400);
+        assertThat(pricingCache.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotUseTotalsOfProductsWithOtherPrice() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(100L, 200L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class))).willReturn(basketSummary);
+        PricingCache pricingCache = new PricingCache(basketSummaryFactory, 10);
+        PromotionPlan promotionPlan = PromotionPlan.compile(promotionalRules);
+        Product moreExpensiveProduct1 = new Product(product1.getCode(), product1.getName(), BigDecimal.valueOf(2));
+        pricingCache.totalPrice(Basket.of(List.of(product1)), promotionPlan);
+
+        // when
+        long totalPrice = pricingCache.totalPrice(Basket.of(List.of(moreExpensiveProduct1)), promotionPlan);
+
+        // then
+        assertThat(totalPrice).isEqualTo(200);
+        assertThat(pricingCache.getHits()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedTotals() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(100L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class))).willReturn(basketSummary);
+        PricingCache pricingCache = new PricingCache(basketSummaryFactory, 2);
+        PromotionPlan promotionPlan = PromotionPlan.compile(promotionalRules);
+        pricingCache.totalPrice(Basket.of(List.of(product1)), promotionPlan);
+        pricingCache.totalPrice(Basket.of(List.of(product2)), promotionPlan);
+        pricingCache.totalPrice(Basket.of(List.of(product1)), promotionPlan);
+
+        // when
+        pricingCache.totalPrice(Basket.of(List.of(product3)), promotionPlan);
+        pricingCache.totalPrice(Basket.of(List.of(product1)), promotionPlan);
+        pricingCache.totalPrice(Basket.of(List.of(product2)), promotionPlan);
+
+        // then
+        assertThat(pricingCache.size()).isEqualTo(2);
+        assertThat(pricingCache.getHits()).isEqualTo(2);
+        assertThat(pricingCache.getMisses()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldForgetAllTotalsWhenInvalidated() {
+        // given
+        given(basketSummary.totalPrice()).willReturn(100L);
+        given(basketSummaryFactory.createBasketSummary(any(Basket.class), any(PromotionPlan.class))).willReturn(basketSummary);
+        PricingCache pricingCache = new PricingCache(basketSummaryFactory, 10);
+        PromotionPlan promotionPlan = PromotionPlan.compile(promotionalRules);
+        pricingCache.totalPrice(Basket.of(List.of(product1)), promotionPlan);
+
+        // when
+        pricingCache.invalidate();
+        pricingCache.totalPrice(Basket.of(List.of(product1)), promotionPlan);
+
+        // then
+        assertThat(pricingCache.size()).isEqualTo(1);
+        assertThat(pricingCache.getMisses()).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowExceptionWhenMaximumSizeIsNotPositive() {
+        // when & then
+        new PricingCache(basketSummaryFactory, 0);
+    }
+}